@@ -0,0 +1,169 @@
+package com.bankmega.certification.cache;
+
+import com.bankmega.certification.dto.CacheStatsResponse;
+import com.bankmega.certification.entity.Division;
+import com.bankmega.certification.entity.JobPosition;
+import com.bankmega.certification.entity.Regional;
+import com.bankmega.certification.entity.Unit;
+import com.bankmega.certification.repository.DivisionRepository;
+import com.bankmega.certification.repository.JobPositionRepository;
+import com.bankmega.certification.repository.RegionalRepository;
+import com.bankmega.certification.repository.UnitRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache nama → id untuk master data organisasi (regional, division, unit, jabatan).
+ * Dipakai bareng oleh importer & createOrGet; di-invalidate oleh service master data.
+ * Yang disimpan hanya id, entity diambil sebagai reference di persistence context pemanggil.
+ */
+@Component
+public class MasterDataCache {
+
+    private final RegionalRepository regionalRepo;
+    private final DivisionRepository divisionRepo;
+    private final UnitRepository unitRepo;
+    private final JobPositionRepository jobRepo;
+
+    private final TtlCache<String, Long> regionals;
+    private final TtlCache<String, Long> divisions;
+    private final TtlCache<String, Long> units;
+    private final TtlCache<String, Long> jobs;
+
+    public MasterDataCache(RegionalRepository regionalRepo,
+            DivisionRepository divisionRepo,
+            UnitRepository unitRepo,
+            JobPositionRepository jobRepo,
+            @Value("${cache.master-data.max-size:5000}") int maxSize,
+            @Value("${cache.master-data.ttl-minutes:30}") long ttlMinutes) {
+        this.regionalRepo = regionalRepo;
+        this.divisionRepo = divisionRepo;
+        this.unitRepo = unitRepo;
+        this.jobRepo = jobRepo;
+
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        this.regionals = new TtlCache<>("master.regional", maxSize, ttl);
+        this.divisions = new TtlCache<>("master.division", maxSize, ttl);
+        this.units = new TtlCache<>("master.unit", maxSize, ttl);
+        this.jobs = new TtlCache<>("master.jobPosition", maxSize, ttl);
+    }
+
+    // ===================== LOOKUP (tanpa create) =====================
+    public Optional<Regional> findRegional(String name) {
+        return Optional.ofNullable(lookupId(regionals, name, n -> regionalRepo.findByNameIgnoreCase(n)
+                .map(Regional::getId).orElse(null))).map(regionalRepo::getReferenceById);
+    }
+
+    public Optional<Division> findDivision(String name) {
+        return Optional.ofNullable(lookupId(divisions, name, n -> divisionRepo.findByNameIgnoreCase(n)
+                .map(Division::getId).orElse(null))).map(divisionRepo::getReferenceById);
+    }
+
+    public Optional<Unit> findUnit(String name) {
+        return Optional.ofNullable(lookupId(units, name, n -> unitRepo.findByNameIgnoreCase(n)
+                .map(Unit::getId).orElse(null))).map(unitRepo::getReferenceById);
+    }
+
+    public Optional<JobPosition> findJob(String name) {
+        return Optional.ofNullable(lookupId(jobs, name, n -> jobRepo.findByNameIgnoreCase(n)
+                .map(JobPosition::getId).orElse(null))).map(jobRepo::getReferenceById);
+    }
+
+    // ===================== LOOKUP / CREATE =====================
+    public Regional getOrCreateRegional(String name, Supplier<Regional> creator) {
+        if (isBlank(name))
+            return null;
+        return findRegional(name).orElseGet(() -> remember(regionals, name, regionalRepo.save(creator.get()).getId(),
+                regionalRepo::getReferenceById));
+    }
+
+    public Division getOrCreateDivision(String name, Supplier<Division> creator) {
+        if (isBlank(name))
+            return null;
+        return findDivision(name).orElseGet(() -> remember(divisions, name, divisionRepo.save(creator.get()).getId(),
+                divisionRepo::getReferenceById));
+    }
+
+    public Unit getOrCreateUnit(String name, Supplier<Unit> creator) {
+        if (isBlank(name))
+            return null;
+        return findUnit(name).orElseGet(() -> remember(units, name, unitRepo.save(creator.get()).getId(),
+                unitRepo::getReferenceById));
+    }
+
+    public JobPosition getOrCreateJob(String name, Supplier<JobPosition> creator) {
+        if (isBlank(name))
+            return null;
+        return findJob(name).orElseGet(() -> remember(jobs, name, jobRepo.save(creator.get()).getId(),
+                jobRepo::getReferenceById));
+    }
+
+    // ===================== INVALIDATION HOOKS =====================
+    public void evictRegional(Long id) {
+        regionals.invalidateIf(id::equals);
+    }
+
+    public void evictDivision(Long id) {
+        divisions.invalidateIf(id::equals);
+    }
+
+    public void evictUnit(Long id) {
+        units.invalidateIf(id::equals);
+    }
+
+    public void evictJob(Long id) {
+        jobs.invalidateIf(id::equals);
+    }
+
+    public void evictAll() {
+        regionals.invalidateAll();
+        divisions.invalidateAll();
+        units.invalidateAll();
+        jobs.invalidateAll();
+    }
+
+    public List<CacheStatsResponse> stats() {
+        return List.of(regionals.stats(), divisions.stats(), units.stats(), jobs.stats());
+    }
+
+    // ===================== HELPERS =====================
+    private Long lookupId(TtlCache<String, Long> cache, String name, Function<String, Long> loader) {
+        if (isBlank(name))
+            return null;
+        String trimmed = name.trim();
+        return cache.get(key(trimmed), k -> loader.apply(trimmed));
+    }
+
+    // Id baru di-cache, tapi dibuang lagi kalau transaksi yang membuatnya rollback
+    private <T> T remember(TtlCache<String, Long> cache, String name, Long id, Function<Long, T> reference) {
+        String key = key(name.trim());
+        cache.put(key, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED)
+                        cache.invalidate(key);
+                }
+            });
+        }
+        return reference.apply(id);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String name) {
+        return name == null || name.isBlank();
+    }
+}
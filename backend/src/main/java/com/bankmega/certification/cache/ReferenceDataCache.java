@@ -0,0 +1,77 @@
+package com.bankmega.certification.cache;
+
+import com.bankmega.certification.dto.CacheStatsResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache buat data referensi dropdown (sertifikasi, level, sub bidang, rule, lembaga).
+ * Tiap region punya TTL & batas ukuran sendiri, bisa di-override lewat
+ * {@code cache.reference.<region>.ttl-minutes} / {@code cache.reference.<region>.max-size}.
+ */
+@Component
+public class ReferenceDataCache {
+
+    public enum Region {
+        CERTIFICATION("certification", 60),
+        CERTIFICATION_LEVEL("certification-level", 60),
+        SUB_FIELD("sub-field", 60),
+        CERTIFICATION_RULE("certification-rule", 30),
+        INSTITUTION("institution", 60);
+
+        private final String key;
+        private final long defaultTtlMinutes;
+
+        Region(String key, long defaultTtlMinutes) {
+            this.key = key;
+            this.defaultTtlMinutes = defaultTtlMinutes;
+        }
+    }
+
+    private final Map<Region, TtlCache<String, List<?>>> caches = new EnumMap<>(Region.class);
+
+    public ReferenceDataCache(Environment env) {
+        for (Region region : Region.values()) {
+            String prefix = "cache.reference." + region.key;
+            long ttl = env.getProperty(prefix + ".ttl-minutes", Long.class, region.defaultTtlMinutes);
+            int maxSize = env.getProperty(prefix + ".max-size", Integer.class, 100);
+            caches.put(region, new TtlCache<>("reference." + region.key, maxSize, Duration.ofMinutes(ttl)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getList(Region region, String key, Supplier<List<T>> loader) {
+        return (List<T>) caches.get(region).get(key, k -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Buang region sekarang juga, dan sekali lagi setelah commit supaya pembaca yang
+     * sempat memuat data lama di tengah transaksi tidak meninggalkan entry basi.
+     */
+    public void evict(Region... regions) {
+        for (Region region : regions)
+            caches.get(region).invalidateAll();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    for (Region region : regions)
+                        caches.get(region).invalidateAll();
+                }
+            });
+        }
+    }
+
+    public List<CacheStatsResponse> stats() {
+        return caches.values().stream().map(TtlCache::stats).toList();
+    }
+}
@@ -0,0 +1,140 @@
+package com.bankmega.certification.cache;
+
+import com.bankmega.certification.dto.CacheStatsResponse;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Cache in-memory sederhana: LRU dengan batas ukuran + TTL per entry, thread-safe.
+ * Nilai null tidak disimpan (hasil "tidak ditemukan" selalu dicek ulang ke DB).
+ */
+public class TtlCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    public TtlCache(String name, int maxSize, Duration ttl) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                boolean evict = size() > TtlCache.this.maxSize;
+                if (evict)
+                    evictions.incrementAndGet();
+                return evict;
+            }
+        };
+    }
+
+    public V get(K key) {
+        synchronized (map) {
+            Entry<V> entry = map.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.isExpired()) {
+                map.remove(key);
+                evictions.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.value;
+        }
+    }
+
+    // Loader dipanggil di luar lock supaya query DB tidak memblok pembaca lain
+    public V get(K key, Function<K, V> loader) {
+        V cached = get(key);
+        if (cached != null)
+            return cached;
+
+        V loaded = loader.apply(key);
+        if (loaded != null)
+            put(key, loaded);
+        return loaded;
+    }
+
+    public void put(K key, V value) {
+        if (value == null)
+            return;
+        synchronized (map) {
+            map.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (map) {
+            if (map.remove(key) != null)
+                evictions.incrementAndGet();
+        }
+    }
+
+    public void invalidateIf(Predicate<V> predicate) {
+        synchronized (map) {
+            Iterator<Entry<V>> it = map.values().iterator();
+            while (it.hasNext()) {
+                if (predicate.test(it.next().value)) {
+                    it.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (map) {
+            evictions.addAndGet(map.size());
+            map.clear();
+        }
+    }
+
+    public CacheStatsResponse stats() {
+        long h = hits.get();
+        long m = misses.get();
+        int size;
+        synchronized (map) {
+            size = map.size();
+        }
+        return CacheStatsResponse.builder()
+                .name(name)
+                .size(size)
+                .maxSize(maxSize)
+                .ttlSeconds(ttlMillis / 1000)
+                .hits(h)
+                .misses(m)
+                .evictions(evictions.get())
+                .hitRatio(h + m == 0 ? 0.0 : (double) h / (h + m))
+                .build();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
@@ -48,6 +48,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/api/roles/**").hasRole("SUPERADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/roles/**").hasRole("SUPERADMIN")
 
+                        // cache stats
+                        .requestMatchers("/api/cache/**").hasRole("SUPERADMIN")
+
                         // certifications
                         .requestMatchers(HttpMethod.GET, "/api/certifications/**").hasAnyRole("SUPERADMIN", "PIC")
                         .requestMatchers(HttpMethod.POST, "/api/certifications").hasRole("SUPERADMIN")
@@ -0,0 +1,33 @@
+package com.bankmega.certification.controller;
+
+import com.bankmega.certification.cache.MasterDataCache;
+import com.bankmega.certification.cache.ReferenceDataCache;
+import com.bankmega.certification.dto.CacheStatsResponse;
+import com.bankmega.certification.security.JwtUtil;
+import com.bankmega.certification.security.PrincipalCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final MasterDataCache masterDataCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final PrincipalCache principalCache;
+
+    // 🔹 Statistik hit/miss/eviction semua cache in-memory
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsResponse>> stats() {
+        List<CacheStatsResponse> stats = new ArrayList<>(masterDataCache.stats());
+        stats.addAll(referenceDataCache.stats());
+        stats.add(principalCache.stats());
+        stats.add(JwtUtil.verifiedTokenStats());
+        return ResponseEntity.ok(stats);
+    }
+}
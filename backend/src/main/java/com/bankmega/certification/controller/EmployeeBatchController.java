@@ -1,5 +1,6 @@
 package com.bankmega.certification.controller;
 
+import com.bankmega.certification.dto.EmployeeBatchBulkResponse;
 import com.bankmega.certification.dto.EmployeeBatchResponse;
 import com.bankmega.certification.dto.EmployeeEligibilityResponse;
 import com.bankmega.certification.entity.EmployeeBatch;
@@ -58,7 +59,7 @@ public class EmployeeBatchController {
 
     // 🔹 Tambah peserta bulk
     @PostMapping("/batch/{batchId}/employees/bulk")
-    public ResponseEntity<List<EmployeeBatchResponse>> addParticipantsBulk(
+    public ResponseEntity<EmployeeBatchBulkResponse> addParticipantsBulk(
             @PathVariable Long batchId,
             @RequestBody List<Long> employeeIds
     ) {
@@ -87,4 +88,14 @@ public class EmployeeBatchController {
     public List<EmployeeEligibilityResponse> getEligibleForBatch(@PathVariable Long batchId) {
         return service.getEligibleEmployeesForBatch(batchId);
     }
+
+    // 🔹 Eligible employees untuk batch (paged + search, urut urgensi)
+    @GetMapping("/batch/{batchId}/eligible/paged")
+    public ResponseEntity<Page<EmployeeEligibilityResponse>> getEligibleForBatchPaged(
+            @PathVariable Long batchId,
+            @RequestParam(required = false) String search,
+            Pageable pageable
+    ) {
+        return ResponseEntity.ok(service.getEligibleEmployeesForBatch(batchId, search, pageable));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.bankmega.certification.controller;
+
+import com.bankmega.certification.dto.EmployeeBatchResultImportResponse;
+import com.bankmega.certification.dto.EmployeeBatchResultRequest;
+import com.bankmega.certification.service.EmployeeBatchResultImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/employee-batches/batch/{batchId}/results")
+@RequiredArgsConstructor
+public class EmployeeBatchResultImportController {
+
+    private final EmployeeBatchResultImportService importService;
+
+    // ✅ Dry Run dari Excel (preview hasil tanpa commit DB)
+    @PostMapping(value = "/dry-run", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<EmployeeBatchResultImportResponse> dryRun(
+            @PathVariable Long batchId,
+            @RequestParam("file") MultipartFile file) {
+        return ResponseEntity.ok(importService.dryRun(batchId, file));
+    }
+
+    // ✅ Dry Run dari JSON array
+    @PostMapping(value = "/dry-run", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EmployeeBatchResultImportResponse> dryRunJson(
+            @PathVariable Long batchId,
+            @RequestBody List<EmployeeBatchResultRequest> rows) {
+        return ResponseEntity.ok(importService.dryRun(batchId, rows));
+    }
+
+    // ✅ Confirm dari Excel (commit ke DB)
+    @PostMapping(value = "/confirm", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<EmployeeBatchResultImportResponse> confirm(
+            @PathVariable Long batchId,
+            @RequestParam("file") MultipartFile file) {
+        return ResponseEntity.ok(importService.confirm(batchId, file));
+    }
+
+    // ✅ Confirm dari JSON array
+    @PostMapping(value = "/confirm", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EmployeeBatchResultImportResponse> confirmJson(
+            @PathVariable Long batchId,
+            @RequestBody List<EmployeeBatchResultRequest> rows) {
+        return ResponseEntity.ok(importService.confirm(batchId, rows));
+    }
+
+    // ✅ Download Template Excel
+    @GetMapping("/template")
+    public ResponseEntity<ByteArrayResource> downloadTemplate(@PathVariable Long batchId) {
+        return importService.downloadTemplate();
+    }
+}
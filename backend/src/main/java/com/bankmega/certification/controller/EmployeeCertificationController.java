@@ -1,10 +1,14 @@
 package com.bankmega.certification.controller;
 
+import com.bankmega.certification.dto.CertificateArchiveUploadResponse;
 import com.bankmega.certification.dto.EmployeeCertificationRequest;
 import com.bankmega.certification.dto.EmployeeCertificationResponse;
+import com.bankmega.certification.service.CertificateArchiveUploadService;
+import com.bankmega.certification.service.CertificateDerivativeService;
 import com.bankmega.certification.service.EmployeeCertificationService;
 import com.bankmega.certification.service.FileStorageService;
 import com.bankmega.certification.service.EmployeeCertificationHistoryService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.*;
@@ -23,6 +27,7 @@ public class EmployeeCertificationController {
 
     private final EmployeeCertificationService service;
     private final FileStorageService fileStorageService;
+    private final CertificateArchiveUploadService archiveUploadService;
     private final EmployeeCertificationHistoryService historyService;
 
     // ================== Paging + Filter ==================
@@ -112,6 +117,19 @@ public class EmployeeCertificationController {
         return service.reuploadCertificate(id, file);
     }
 
+    // ================== Bulk Upload (ZIP) ==================
+    @PostMapping("/bulk-upload/dry-run")
+    public ResponseEntity<CertificateArchiveUploadResponse> bulkUploadDryRun(
+            @RequestParam("file") MultipartFile file) {
+        return ResponseEntity.ok(archiveUploadService.dryRun(file));
+    }
+
+    @PostMapping("/bulk-upload/confirm")
+    public ResponseEntity<CertificateArchiveUploadResponse> bulkUploadConfirm(
+            @RequestParam("file") MultipartFile file) {
+        return ResponseEntity.ok(archiveUploadService.confirm(file));
+    }
+
     // ================== Delete File ==================
     @DeleteMapping("/{id}/certificate")
     public ResponseEntity<Void> deleteCertificate(@PathVariable Long id) {
@@ -123,7 +141,9 @@ public class EmployeeCertificationController {
     @GetMapping("/{id}/file")
     public ResponseEntity<Resource> getCertificateFile(
             @PathVariable Long id,
-            @RequestParam(value = "download", defaultValue = "false") boolean download) {
-        return fileStorageService.serveFile(id, download);
+            @RequestParam(value = "download", defaultValue = "false") boolean download,
+            @RequestParam(value = "size", defaultValue = "original") String size,
+            HttpServletRequest request) {
+        return fileStorageService.serveFile(id, download, CertificateDerivativeService.Size.from(size), request);
     }
 }
@@ -1,13 +1,18 @@
 package com.bankmega.certification.controller;
 
+import com.bankmega.certification.dto.EligibilityReconcileResponse;
+import com.bankmega.certification.dto.EligibilityRefreshJobResponse;
 import com.bankmega.certification.dto.EmployeeEligibilityResponse;
+import com.bankmega.certification.service.EligibilityRefreshJobService;
 import com.bankmega.certification.service.EmployeeEligibilityService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +22,7 @@ import java.util.Map;
 public class EmployeeEligibilityController {
 
     private final EmployeeEligibilityService service;
+    private final EligibilityRefreshJobService refreshJobService;
 
     // ===================== PAGED FILTERED =====================
     @GetMapping("/paged")
@@ -51,13 +57,32 @@ public class EmployeeEligibilityController {
         return ResponseEntity.ok(service.getById(id));
     }
 
-    // ===================== REFRESH MASS (SEMUA PEGAWAI) =====================
+    // ===================== REFRESH MASS (SEMUA PEGAWAI, BACKGROUND JOB) =====================
     @PostMapping("/refresh")
-    public ResponseEntity<Map<String, Object>> refreshAll() {
-        int count = service.refreshEligibility();
-        return ResponseEntity.ok(Map.of(
-                "message", "Eligibility refreshed for all employees",
-                "refreshedCount", count));
+    public ResponseEntity<EligibilityRefreshJobResponse> refreshAll(Principal principal) {
+        EligibilityRefreshJobResponse job = refreshJobService.start(principal != null ? principal.getName() : null);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/refresh/jobs/latest")
+    public ResponseEntity<EligibilityRefreshJobResponse> getLatestRefreshJob() {
+        return ResponseEntity.ok(refreshJobService.getLatest());
+    }
+
+    @GetMapping("/refresh/jobs/{jobId}")
+    public ResponseEntity<EligibilityRefreshJobResponse> getRefreshJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(refreshJobService.getStatus(jobId));
+    }
+
+    @PostMapping("/refresh/jobs/{jobId}/resume")
+    public ResponseEntity<EligibilityRefreshJobResponse> resumeRefreshJob(@PathVariable Long jobId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(refreshJobService.resume(jobId));
+    }
+
+    // ===================== REKONSILIASI SET-BASED (SEMUA PEGAWAI) =====================
+    @PostMapping("/reconcile")
+    public ResponseEntity<EligibilityReconcileResponse> reconcileAll() {
+        return ResponseEntity.ok(service.reconcileEligibility());
     }
 
     // ===================== REFRESH PER EMPLOYEE =====================
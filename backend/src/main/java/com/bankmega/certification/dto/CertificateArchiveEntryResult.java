@@ -0,0 +1,28 @@
+package com.bankmega.certification.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CertificateArchiveEntryResult {
+
+    public enum Status {
+        MATCHED,     // dry-run: cocok, siap disimpan
+        STORED,      // confirm: tersimpan & ter-link
+        UNMATCHED,   // tidak ada sertifikasi yang cocok dengan nama file
+        AMBIGUOUS,   // cocok ke lebih dari satu sertifikasi
+        DUPLICATE,   // sertifikasi sudah diisi entry lain di ZIP yang sama
+        INVALID,     // bukan PNG/JPG atau terlalu besar
+        SKIPPED,     // tidak diproses: batas jumlah file per ZIP tercapai
+        ERROR
+    }
+
+    private String entryName;
+    private Status status;
+    private Long employeeCertificationId;
+    private String matchedName;
+    private boolean replacesExisting;
+    private String message;
+}
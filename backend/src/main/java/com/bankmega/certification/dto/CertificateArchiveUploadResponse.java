@@ -0,0 +1,22 @@
+package com.bankmega.certification.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CertificateArchiveUploadResponse {
+    private String fileName;
+    private int processed;
+    private int matched;
+    private int stored;
+    private int skipped;
+    private int errors;
+    private List<CertificateArchiveEntryResult> entries;
+    private boolean dryRun;
+    private boolean truncated; // batas jumlah file tercapai, sisa ZIP tidak dibaca
+    private String message;
+}
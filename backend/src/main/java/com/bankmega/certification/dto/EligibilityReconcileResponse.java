@@ -0,0 +1,14 @@
+package com.bankmega.certification.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EligibilityReconcileResponse {
+    private int upserted;
+    private int deactivated;
+    private int statusUpdated;
+    private long durationMs;
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.bankmega.certification.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class EligibilityRefreshJobResponse {
+    private Long jobId;
+    private String status;
+    private int total;
+    private int processed;
+    private int refreshedCount;
+    private double percent;
+    private Long etaSeconds;
+    private String triggeredBy;
+    private String errorMessage;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+}
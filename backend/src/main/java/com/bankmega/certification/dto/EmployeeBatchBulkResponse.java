@@ -0,0 +1,20 @@
+package com.bankmega.certification.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeBatchBulkResponse {
+
+    // 🔹 Peserta yang baru masuk batch (insert + reaktivasi)
+    private List<EmployeeBatchResponse> participants;
+
+    private int inserted;
+    private int reactivated;
+    private int skipped; // sudah jadi peserta aktif
+}
@@ -0,0 +1,25 @@
+package com.bankmega.certification.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeBatchResultImportResponse {
+    private Long batchId;
+    private String fileName;
+    private int processed;
+    private int attended;
+    private int passed;
+    private int failed;
+    private int skipped; // status sama dengan yang sudah tercatat
+    private int errors;
+    private int certificationsCreated;
+    private int certificationsUpdated;
+    private List<String> errorDetails;
+    private boolean dryRun;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.bankmega.certification.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+// 🔹 Satu baris hasil ujian peserta batch (body JSON / baris Excel)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeBatchResultRequest {
+    private String nip;
+    private String status;       // ATTENDED / PASSED / FAILED
+    private Integer score;
+    private LocalDate resultDate; // kosong → hari ini
+    private String notes;
+}
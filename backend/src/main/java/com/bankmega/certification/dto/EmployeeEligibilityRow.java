@@ -0,0 +1,38 @@
+package com.bankmega.certification.dto;
+
+import com.bankmega.certification.entity.EmployeeEligibility;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Hasil projection flat dari satu SELECT join eligibility + employee + rule (tanpa load entity)
+@Data
+@Builder
+public class EmployeeEligibilityRow {
+    private Long id;
+    private Long employeeId;
+    private String nip;
+    private String employeeName;
+    private String jobPositionTitle;
+    private LocalDate effectiveDate;
+
+    private Long certificationRuleId;
+    private String certificationCode;
+    private String certificationName;
+    private String certificationLevelName;
+    private Integer certificationLevelLevel;
+    private String subFieldName;
+    private String subFieldCode;
+    private Integer ruleValidityMonths;
+    private Integer ruleWajibSetelahMasuk;
+
+    private EmployeeEligibility.EligibilityStatus status;
+    private LocalDate dueDate;
+    private EmployeeEligibility.EligibilitySource source;
+    private Boolean isActive;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.bankmega.certification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProvisionRequest {
+    private Long employeeId;
+    private String username;
+    private String email;
+    private String password; // optional, default = username (NIP)
+}
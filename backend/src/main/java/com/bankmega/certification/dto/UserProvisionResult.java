@@ -0,0 +1,23 @@
+package com.bankmega.certification.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class UserProvisionResult {
+    private int requested;
+    private int created;
+    private int skipped; // username sudah ada → tidak dibuat ulang
+    private List<Failure> failures;
+
+    @Data
+    @Builder
+    public static class Failure {
+        private String username;
+        private Long employeeId;
+        private String reason;
+    }
+}
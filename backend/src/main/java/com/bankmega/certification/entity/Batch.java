@@ -48,6 +48,11 @@ public class Batch {
     @Column(name = "quota")
     private Integer quota;
 
+    // 🔹 Jumlah peserta aktif; hanya diubah lewat BatchRepository.reserveSeats / releaseSeats
+    // (UPDATE bersyarat, atomik per baris) → entity tidak pernah menimpa nilai ini
+    @Column(name = "participant_count", insertable = false, updatable = false)
+    private Integer participantCount;
+
     @Enumerated(EnumType.STRING)
     @Column(length = 20, nullable = false)
     private Status status;
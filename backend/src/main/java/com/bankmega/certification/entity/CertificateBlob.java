@@ -0,0 +1,49 @@
+package com.bankmega.certification.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Blob file sertifikat yang dialamatkan dengan hash isi (SHA-256).
+ * Satu blob bisa dipakai banyak EmployeeCertification & snapshot history-nya (file_url = storage_key).
+ * refCount di-update saat attach/detach dan direkonsiliasi ulang oleh GC dari DB.
+ */
+@Entity
+@Table(name = "certificate_blobs", indexes = {
+        @Index(name = "idx_certificate_blobs_orphaned_at", columnList = "orphaned_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CertificateBlob {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(name = "storage_key", nullable = false, unique = true, length = 100)
+    private String storageKey;
+
+    @Column(name = "content_type", length = 50)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    // 🔹 Kapan ref_count jadi 0; GC baru hapus setelah lewat grace period
+    @Column(name = "orphaned_at")
+    private Instant orphanedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "last_uploaded_at", nullable = false)
+    private Instant lastUploadedAt;
+}
@@ -0,0 +1,71 @@
+package com.bankmega.certification.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "eligibility_refresh_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EligibilityRefreshJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "total_employees", nullable = false)
+    private int totalEmployees;
+
+    @Column(name = "processed_employees", nullable = false)
+    private int processedEmployees;
+
+    // 🔹 Jumlah baris eligibility yang disimpan ulang
+    @Column(name = "refreshed_count", nullable = false)
+    private int refreshedCount;
+
+    // 🔹 Cursor: employee id terakhir dari chunk yang sudah commit (resume mulai dari sini)
+    @Column(name = "last_employee_id", nullable = false)
+    private Long lastEmployeeId;
+
+    @Column(name = "triggered_by", length = 100)
+    private String triggeredBy;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    // 🔹 Awal run terakhir (start / resume), dipakai hitung ETA
+    @Column(name = "run_started_at")
+    private Instant runStartedAt;
+
+    @Column(name = "run_start_processed")
+    private int runStartProcessed;
+
+    // 🔹 Instance yang sedang mengerjakan job (pid@host); klaim lewat UPDATE bersyarat
+    @Column(name = "owner", length = 100)
+    private String owner;
+
+    // 🔹 Juga heartbeat: diperbarui tiap chunk commit, job RUNNING yang lama diam dianggap yatim
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -25,7 +25,8 @@ import java.time.LocalDate;
 public class EmployeeBatch {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_batches_seq")
+    @SequenceGenerator(name = "employee_batches_seq", sequenceName = "employee_batches_seq", allocationSize = 50)
     private Long id;
 
     // 🔹 Relasi ke batch
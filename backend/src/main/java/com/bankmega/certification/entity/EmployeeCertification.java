@@ -10,7 +10,11 @@ import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "employee_certifications")
+@Table(name = "employee_certifications", indexes = {
+        @Index(name = "idx_employee_certifications_valid_until", columnList = "valid_until"),
+        @Index(name = "idx_employee_certifications_reminder_date", columnList = "reminder_date"),
+        @Index(name = "idx_employee_certifications_file_url", columnList = "file_url")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,7 +24,8 @@ import java.time.LocalDate;
 public class EmployeeCertification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_certifications_seq")
+    @SequenceGenerator(name = "employee_certifications_seq", sequenceName = "employee_certifications_seq", allocationSize = 50)
     private Long id;
 
     // 🔹 Relasi ke Employee
@@ -72,6 +77,10 @@ public class EmployeeCertification {
     @Column(name = "file_type", length = 50)
     private String fileType;
 
+    // SHA-256 isi file (hex), dihitung saat upload → dipakai sebagai ETag
+    @Column(name = "file_hash", length = 64)
+    private String fileHash;
+
     @Enumerated(EnumType.STRING)
     @Column(length = 30, nullable = false)
     private Status status;
@@ -9,7 +9,9 @@ import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "employee_certification_histories")
+@Table(name = "employee_certification_histories", indexes = {
+        @Index(name = "idx_employee_certification_histories_file_url", columnList = "file_url")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,7 +21,8 @@ import java.time.LocalDate;
 public class EmployeeCertificationHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_certification_histories_seq")
+    @SequenceGenerator(name = "employee_certification_histories_seq", sequenceName = "employee_certification_histories_seq", allocationSize = 50)
     private Long id;
 
     // 🔹 Relasi ke sertifikat utama
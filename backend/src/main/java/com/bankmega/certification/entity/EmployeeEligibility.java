@@ -14,6 +14,9 @@ import java.time.LocalDate;
     name = "employee_eligibilities",
     uniqueConstraints = {
         @UniqueConstraint(columnNames = {"employee_id", "certification_rule_id"})
+    },
+    indexes = {
+        @Index(name = "idx_employee_eligibilities_due_date", columnList = "due_date")
     }
 )
 @Getter
@@ -25,7 +28,8 @@ import java.time.LocalDate;
 public class EmployeeEligibility {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_eligibilities_seq")
+    @SequenceGenerator(name = "employee_eligibilities_seq", sequenceName = "employee_eligibilities_seq", allocationSize = 50)
     private Long id;
 
     // 🔗 Relasi ke Employee
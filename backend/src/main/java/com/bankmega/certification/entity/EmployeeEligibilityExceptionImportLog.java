@@ -14,7 +14,8 @@ import java.time.Instant;
 public class EmployeeEligibilityExceptionImportLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exception_import_logs_seq")
+    @SequenceGenerator(name = "exception_import_logs_seq", sequenceName = "exception_import_logs_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -16,7 +16,8 @@ import java.time.LocalDate;
 public class EmployeeHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_histories_seq")
+    @SequenceGenerator(name = "employee_histories_seq", sequenceName = "employee_histories_seq", allocationSize = 50)
     private Long id;
 
     // FK ke employee utama
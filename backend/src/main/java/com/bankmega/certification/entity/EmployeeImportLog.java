@@ -14,7 +14,8 @@ import java.time.Instant;
 public class EmployeeImportLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_import_logs_seq")
+    @SequenceGenerator(name = "employee_import_logs_seq", sequenceName = "employee_import_logs_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class JobCertificationImportLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_certification_import_logs_seq")
+    @SequenceGenerator(name = "job_certification_import_logs_seq", sequenceName = "job_certification_import_logs_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
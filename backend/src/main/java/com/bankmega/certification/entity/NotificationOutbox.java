@@ -0,0 +1,93 @@
+package com.bankmega.certification.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "notification_outbox", uniqueConstraints = {
+        // satu notifikasi per penerima per siklus sertifikat (threshold = valid_until), apa pun sumbernya
+        @UniqueConstraint(name = "uk_notification_outbox_event", columnNames = {
+                "recipient_user_id", "employee_id", "certification_rule_id", "event_type", "threshold_date" })
+}, indexes = {
+        @Index(name = "idx_notification_outbox_pending", columnList = "status, next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient_user_id", nullable = false)
+    private Long recipientUserId;
+
+    @Column(name = "recipient_email", nullable = false, length = 100)
+    private String recipientEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20)
+    private EventType eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Source source;
+
+    @Column(name = "employee_id", nullable = false)
+    private Long employeeId;
+
+    @Column(name = "certification_rule_id", nullable = false)
+    private Long certificationRuleId;
+
+    @Column(name = "threshold_date")
+    private LocalDate thresholdDate;
+
+    // 🔹 Ringkasan baris (NIP - nama | sertifikasi) disusun saat enqueue, dispatcher tidak perlu join lagi
+    @Column(length = 500)
+    private String summary;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "claimed_at")
+    private Instant claimedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    public enum EventType {
+        DUE,
+        EXPIRED
+    }
+
+    public enum Source {
+        CERTIFICATION,
+        ELIGIBILITY
+    }
+
+    public enum Status {
+        PENDING,
+        SENDING,
+        SENT,
+        FAILED
+    }
+}
@@ -0,0 +1,64 @@
+package com.bankmega.certification.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "status_sweep_runs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatusSweepRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    // 🔹 Rentang tanggal yang di-sweep: threshold yang lewat di antara fromDate dan sweepDate
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @Column(name = "sweep_date", nullable = false)
+    private LocalDate sweepDate;
+
+    @Column(name = "cert_due_count", nullable = false)
+    private int certDueCount;
+
+    @Column(name = "cert_expired_count", nullable = false)
+    private int certExpiredCount;
+
+    @Column(name = "eligibility_due_count", nullable = false)
+    private int eligibilityDueCount;
+
+    @Column(name = "eligibility_expired_count", nullable = false)
+    private int eligibilityExpiredCount;
+
+    @Column(name = "notifications_queued", nullable = false)
+    private int notificationsQueued;
+
+    @Column(name = "triggered_by", length = 100)
+    private String triggeredBy;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    public enum Status {
+        COMPLETED,
+        FAILED
+    }
+}
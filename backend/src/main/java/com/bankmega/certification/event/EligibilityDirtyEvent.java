@@ -0,0 +1,48 @@
+package com.bankmega.certification.event;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Dipublish oleh jalur mutasi data (import pegawai, mapping jabatan, exception, rule)
+ * supaya eligibility cukup dihitung ulang untuk pegawai yang terdampak saja.
+ */
+@Getter
+public class EligibilityDirtyEvent {
+
+    private final Set<Long> employeeIds;
+    private final Set<Long> jobIds;
+    private final Set<Long> ruleIds;
+
+    public EligibilityDirtyEvent(Collection<Long> employeeIds, Collection<Long> jobIds, Collection<Long> ruleIds) {
+        this.employeeIds = copyOf(employeeIds);
+        this.jobIds = copyOf(jobIds);
+        this.ruleIds = copyOf(ruleIds);
+    }
+
+    public static EligibilityDirtyEvent ofEmployees(Collection<Long> employeeIds) {
+        return new EligibilityDirtyEvent(employeeIds, null, null);
+    }
+
+    public static EligibilityDirtyEvent ofJobs(Collection<Long> jobIds) {
+        return new EligibilityDirtyEvent(null, jobIds, null);
+    }
+
+    public static EligibilityDirtyEvent ofRules(Collection<Long> ruleIds) {
+        return new EligibilityDirtyEvent(null, null, ruleIds);
+    }
+
+    public boolean isEmpty() {
+        return employeeIds.isEmpty() && jobIds.isEmpty() && ruleIds.isEmpty();
+    }
+
+    private static Set<Long> copyOf(Collection<Long> ids) {
+        if (ids == null)
+            return Set.of();
+        return ids.stream().filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+    }
+}
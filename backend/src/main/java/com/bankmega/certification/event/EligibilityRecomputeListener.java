@@ -0,0 +1,33 @@
+package com.bankmega.certification.event;
+
+import com.bankmega.certification.service.EmployeeEligibilityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EligibilityRecomputeListener {
+
+    private final EmployeeEligibilityService eligibilityService;
+
+    // Jalan setelah transaksi mutasi commit, jadi recompute selalu baca data terbaru.
+    // Kalau gagal, mutasinya tetap tersimpan; refresh penuh (rekonsiliasi) yang akan membereskan.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEligibilityDirty(EligibilityDirtyEvent event) {
+        if (event.isEmpty())
+            return;
+
+        try {
+            int count = eligibilityService.recomputeDirty(
+                    event.getEmployeeIds(), event.getJobIds(), event.getRuleIds());
+            log.info("✅ Recompute eligibility: {} baris (employees={}, jobs={}, rules={})",
+                    count, event.getEmployeeIds().size(), event.getJobIds().size(), event.getRuleIds().size());
+        } catch (Exception e) {
+            log.error("❌ Gagal recompute eligibility: {}", e.getMessage(), e);
+        }
+    }
+}
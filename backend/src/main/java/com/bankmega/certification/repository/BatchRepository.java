@@ -3,8 +3,15 @@
 package com.bankmega.certification.repository;
 
 import com.bankmega.certification.entity.Batch;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +19,31 @@ import java.util.Optional;
 @Repository
 public interface BatchRepository extends JpaRepository<Batch, Long>, JpaSpecificationExecutor<Batch> {
     Optional<Batch> findByIdAndDeletedAtIsNull(Long id);
+
+    // 🔹 Listing: rule + sertifikasi + level + sub bidang + refreshment + lembaga ikut 1 SELECT (semua to-one)
+    @Override
+    @EntityGraph(attributePaths = {
+            "certificationRule",
+            "certificationRule.certification",
+            "certificationRule.certificationLevel",
+            "certificationRule.subField",
+            "certificationRule.refreshmentType",
+            "institution"
+    })
+    Page<Batch> findAll(Specification<Batch> spec, Pageable pageable);
+
+    // 🔹 Reservasi kuota atomik: cek + tambah dalam satu UPDATE (row lock, bukan table lock).
+    // Return 0 → kuota tidak cukup / batch tidak ada. Semua-atau-tidak untuk n kursi.
+    @Modifying
+    @Query(value = "UPDATE batches SET participant_count = participant_count + :seats " +
+            "WHERE id = :batchId AND deleted_at IS NULL " +
+            "  AND (quota IS NULL OR participant_count + :seats <= quota)",
+            nativeQuery = true)
+    int reserveSeats(@Param("batchId") Long batchId, @Param("seats") int seats);
+
+    @Modifying
+    @Query(value = "UPDATE batches SET participant_count = GREATEST(participant_count - :seats, 0) " +
+            "WHERE id = :batchId",
+            nativeQuery = true)
+    int releaseSeats(@Param("batchId") Long batchId, @Param("seats") int seats);
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.bankmega.certification.repository;
+
+import com.bankmega.certification.entity.CertificateBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface CertificateBlobRepository extends JpaRepository<CertificateBlob, String> {
+
+    // 🔹 Serialisasi upload vs GC untuk hash yang sama (lock dilepas otomatis saat transaksi selesai)
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext(:hash))) l", nativeQuery = true)
+    Integer lockHash(@Param("hash") String hash);
+
+    // 🔹 Upload: daftar blob baru, atau "hidupkan" lagi blob yang sempat yatim
+    @Modifying
+    @Query(value = "INSERT INTO certificate_blobs " +
+            "(hash, storage_key, content_type, size_bytes, ref_count, orphaned_at, created_at, last_uploaded_at) " +
+            "VALUES (:hash, :storageKey, :contentType, :size, 0, now(), now(), now()) " +
+            "ON CONFLICT (hash) DO UPDATE SET last_uploaded_at = now()",
+            nativeQuery = true)
+    int upsertUploaded(@Param("hash") String hash,
+            @Param("storageKey") String storageKey,
+            @Param("contentType") String contentType,
+            @Param("size") long size);
+
+    // 🔹 Attach (+1) / detach (-1) dari EmployeeCertification
+    @Modifying
+    @Query(value = "UPDATE certificate_blobs SET " +
+            "  ref_count = GREATEST(ref_count + :delta, 0), " +
+            "  orphaned_at = CASE WHEN ref_count + :delta > 0 THEN NULL ELSE COALESCE(orphaned_at, now()) END " +
+            "WHERE storage_key = :storageKey",
+            nativeQuery = true)
+    int adjustRefCount(@Param("storageKey") String storageKey, @Param("delta") int delta);
+
+    /**
+     * Hitung ulang ref_count dari DB: sertifikat (termasuk soft delete) + snapshot history.
+     * Koreksi drift dari counter attach/detach; history tidak di-count saat snapshot dibuat.
+     */
+    @Modifying
+    @Query(value = "UPDATE certificate_blobs b SET " +
+            "  ref_count = r.cnt, " +
+            "  orphaned_at = CASE WHEN r.cnt > 0 THEN NULL ELSE COALESCE(b.orphaned_at, now()) END " +
+            "FROM ( " +
+            "  SELECT x.hash, " +
+            "         (SELECT count(*) FROM employee_certifications ec WHERE ec.file_url = x.storage_key) + " +
+            "         (SELECT count(*) FROM employee_certification_histories h WHERE h.file_url = x.storage_key) AS cnt " +
+            "  FROM certificate_blobs x " +
+            ") r " +
+            "WHERE r.hash = b.hash " +
+            "  AND (b.ref_count <> r.cnt OR (r.cnt = 0) <> (b.orphaned_at IS NOT NULL))",
+            nativeQuery = true)
+    int reconcileRefCounts();
+
+    @Query(value = "SELECT hash FROM certificate_blobs WHERE ref_count = 0 AND orphaned_at < :cutoff",
+            nativeQuery = true)
+    List<String> findReclaimable(@Param("cutoff") Instant cutoff);
+
+    // 🔹 Re-check di bawah lock: masih yatim & lewat grace?
+    @Query(value = "SELECT * FROM certificate_blobs WHERE hash = :hash AND ref_count = 0 AND orphaned_at < :cutoff",
+            nativeQuery = true)
+    Optional<CertificateBlob> findReclaimable(@Param("hash") String hash, @Param("cutoff") Instant cutoff);
+
+    @Query(value = "SELECT storage_key FROM certificate_blobs", nativeQuery = true)
+    List<String> findAllStorageKeys();
+
+    // 🔹 Semua file_url yang masih dirujuk (termasuk file lama sebelum content-addressed)
+    @Query(value = "SELECT file_url FROM employee_certifications WHERE file_url IS NOT NULL " +
+            "UNION SELECT file_url FROM employee_certification_histories WHERE file_url IS NOT NULL",
+            nativeQuery = true)
+    List<String> findReferencedFileUrls();
+
+    // 🔹 Hash yang turunannya (thumb/medium) masih boleh disimpan
+    @Query(value = "SELECT hash FROM certificate_blobs " +
+            "UNION SELECT file_hash FROM employee_certifications WHERE file_hash IS NOT NULL",
+            nativeQuery = true)
+    List<String> findLiveHashes();
+}
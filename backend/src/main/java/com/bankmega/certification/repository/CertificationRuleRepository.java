@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +16,23 @@ public interface CertificationRuleRepository extends JpaRepository<Certification
     // 🔹 Ambil semua rule yang belum soft-delete
     List<CertificationRule> findByDeletedAtIsNull();
 
+    // 🔹 Katalog rule: 1 query dengan join, sudah urut (kode sertifikasi, level, kode sub bidang)
+    String CATALOGUE_SELECT = """
+            SELECT r FROM CertificationRule r
+            JOIN FETCH r.certification c
+            LEFT JOIN FETCH r.certificationLevel l
+            LEFT JOIN FETCH r.subField sf
+            LEFT JOIN FETCH r.refreshmentType rt
+            WHERE r.deletedAt IS NULL
+            """;
+    String CATALOGUE_ORDER = " ORDER BY LOWER(c.code) ASC, l.level ASC NULLS FIRST, LOWER(sf.code) ASC NULLS FIRST";
+
+    @Query(CATALOGUE_SELECT + CATALOGUE_ORDER)
+    List<CertificationRule> findCatalogue();
+
+    @Query(CATALOGUE_SELECT + " AND r.isActive = true" + CATALOGUE_ORDER)
+    List<CertificationRule> findActiveCatalogue();
+
     // 🔹 Cari rule by ID tapi exclude yang deleted
     Optional<CertificationRule> findByIdAndDeletedAtIsNull(Long id);
 
@@ -0,0 +1,29 @@
+package com.bankmega.certification.repository;
+
+import com.bankmega.certification.entity.EligibilityRefreshJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface EligibilityRefreshJobRepository extends JpaRepository<EligibilityRefreshJob, Long> {
+
+    List<EligibilityRefreshJob> findByStatus(EligibilityRefreshJob.Status status);
+
+    Optional<EligibilityRefreshJob> findFirstByOrderByStartedAtDesc();
+
+    // Klaim job RUNNING yang heartbeat-nya basi; 1 = berhasil, 0 = masih dipegang instance lain / sudah diklaim
+    @Modifying
+    @Query(value = "UPDATE eligibility_refresh_jobs SET owner = :owner, updated_at = :now " +
+            "WHERE id = :jobId AND status = 'RUNNING' " +
+            "  AND (updated_at IS NULL OR updated_at < :staleBefore)",
+            nativeQuery = true)
+    int claimStale(@Param("jobId") Long jobId,
+            @Param("owner") String owner,
+            @Param("now") Instant now,
+            @Param("staleBefore") Instant staleBefore);
+}
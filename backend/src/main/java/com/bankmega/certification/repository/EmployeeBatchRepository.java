@@ -2,9 +2,14 @@
 package com.bankmega.certification.repository;
 
 import com.bankmega.certification.entity.EmployeeBatch;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +22,46 @@ public interface EmployeeBatchRepository extends JpaRepository<EmployeeBatch, Lo
     long countByBatch_IdAndDeletedAtIsNull(Long batchId);
     long countByBatch_IdAndStatusAndDeletedAtIsNull(Long batchId, EmployeeBatch.Status status);
     List<EmployeeBatch> findByEmployee_IdAndBatch_CertificationRule_IdAndDeletedAtIsNull(Long employeeId, Long ruleId);
+
+    // ==== Jumlah peserta aktif + lulus per batch: 1 GROUP BY untuk semua batch di 1 halaman listing ====
+    interface BatchCountRow {
+        Long getBatchId();
+
+        Long getTotalParticipants();
+
+        Long getTotalPassed();
+    }
+
+    @Query("SELECT eb.batch.id AS batchId, COUNT(eb) AS totalParticipants, " +
+            "SUM(CASE WHEN eb.status = com.bankmega.certification.entity.EmployeeBatch.Status.PASSED " +
+            "    THEN 1 ELSE 0 END) AS totalPassed " +
+            "FROM EmployeeBatch eb " +
+            "WHERE eb.batch.id IN :batchIds AND eb.deletedAt IS NULL " +
+            "GROUP BY eb.batch.id")
+    List<BatchCountRow> countByBatchIds(@Param("batchIds") Collection<Long> batchIds);
+
+    // 🔹 Row lock keanggotaan: reaktivasi / hapus paralel untuk peserta yang sama tidak dobel hitung kuota
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT eb FROM EmployeeBatch eb WHERE eb.batch.id = :batchId AND eb.employee.id = :employeeId")
+    Optional<EmployeeBatch> lockByBatchAndEmployee(@Param("batchId") Long batchId, @Param("employeeId") Long employeeId);
+
+    // 🔹 Semua keanggotaan (aktif + soft delete) untuk banyak pegawai sekaligus, di-lock untuk enroll bulk
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT eb FROM EmployeeBatch eb WHERE eb.batch.id = :batchId AND eb.employee.id IN :employeeIds")
+    List<EmployeeBatch> lockByBatchAndEmployees(@Param("batchId") Long batchId,
+            @Param("employeeIds") Collection<Long> employeeIds);
+
+    // 🔹 Peserta aktif + pegawainya (import hasil ujian: dry run baca saja, confirm pakai versi lock)
+    @Query("SELECT eb FROM EmployeeBatch eb JOIN FETCH eb.employee " +
+            "WHERE eb.batch.id = :batchId AND eb.deletedAt IS NULL")
+    List<EmployeeBatch> findActiveByBatchWithEmployee(@Param("batchId") Long batchId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT eb FROM EmployeeBatch eb JOIN FETCH eb.employee " +
+            "WHERE eb.batch.id = :batchId AND eb.deletedAt IS NULL")
+    List<EmployeeBatch> lockActiveByBatchWithEmployee(@Param("batchId") Long batchId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT eb FROM EmployeeBatch eb WHERE eb.id = :id AND eb.deletedAt IS NULL")
+    Optional<EmployeeBatch> lockActiveById(@Param("id") Long id);
 }
@@ -3,7 +3,11 @@ package com.bankmega.certification.repository;
 import com.bankmega.certification.entity.EmployeeCertificationHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface EmployeeCertificationHistoryRepository
@@ -15,4 +19,12 @@ public interface EmployeeCertificationHistoryRepository
 
     // Ambil history terakhir (buat snapshot comparison)
     Optional<EmployeeCertificationHistory> findTopByEmployeeCertificationIdOrderByActionAtDesc(Long certificationId);
+
+    // History terakhir untuk banyak sertifikat sekaligus (snapshot bulk)
+    @Query("SELECT h FROM EmployeeCertificationHistory h " +
+            "WHERE h.employeeCertification.id IN :certificationIds " +
+            "AND h.actionAt = (SELECT MAX(h2.actionAt) FROM EmployeeCertificationHistory h2 " +
+            "                  WHERE h2.employeeCertification.id = h.employeeCertification.id)")
+    List<EmployeeCertificationHistory> findLatestByCertificationIds(
+            @Param("certificationIds") Collection<Long> certificationIds);
 }
@@ -3,7 +3,12 @@ package com.bankmega.certification.repository;
 import com.bankmega.certification.entity.EmployeeCertification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +32,37 @@ public interface EmployeeCertificationRepository extends
     // 🔹 Cek apakah ada sertifikasi aktif (hindari duplikat create)
     Optional<EmployeeCertification> findFirstByEmployeeIdAndCertificationRuleIdAndDeletedAtIsNull(
             Long employeeId, Long certificationRuleId);
-}
\ No newline at end of file
+
+    // 🔹 Sertifikasi aktif untuk 1 rule + banyak pegawai (import hasil ujian batch)
+    List<EmployeeCertification> findByCertificationRuleIdAndEmployeeIdInAndDeletedAtIsNull(
+            Long certificationRuleId, Collection<Long> employeeIds);
+
+    // 🔹 Kandidat pencocokan nama file bulk upload (rule + level + sub bidang ikut di-fetch)
+    @Query("SELECT ec FROM EmployeeCertification ec " +
+            "JOIN FETCH ec.employee e " +
+            "JOIN FETCH ec.certificationRule r " +
+            "JOIN FETCH r.certification " +
+            "LEFT JOIN FETCH r.certificationLevel " +
+            "LEFT JOIN FETCH r.subField " +
+            "WHERE e.nip = :nip AND ec.deletedAt IS NULL")
+    List<EmployeeCertification> findForFileMatching(@Param("nip") String nip);
+
+    // ==== Sweep status harian (range scan di index valid_until / reminder_date) ====
+
+    // valid_until di [from, today) → sudah lewat sejak sweep terakhir
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE employee_certifications SET status = 'EXPIRED', updated_at = now() " +
+            "WHERE valid_until >= :from AND valid_until < :today " +
+            "  AND status IN ('ACTIVE', 'DUE') AND deleted_at IS NULL",
+            nativeQuery = true)
+    int expireCrossed(@Param("from") LocalDate from, @Param("today") LocalDate today);
+
+    // reminder_date di (from, today] dan belum expired → masuk masa DUE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE employee_certifications SET status = 'DUE', updated_at = now() " +
+            "WHERE reminder_date > :from AND reminder_date <= :today " +
+            "  AND valid_until >= :today " +
+            "  AND status = 'ACTIVE' AND deleted_at IS NULL",
+            nativeQuery = true)
+    int markDueCrossed(@Param("from") LocalDate from, @Param("today") LocalDate today);
+}
@@ -4,6 +4,7 @@ import com.bankmega.certification.entity.EmployeeEligibilityException;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +18,9 @@ public interface EmployeeEligibilityExceptionRepository
     // 🔹 Cari semua exception aktif milik employee
     List<EmployeeEligibilityException> findByEmployeeIdAndDeletedAtIsNull(Long employeeId);
 
+    // 🔹 Cari semua exception aktif milik sekumpulan employee
+    List<EmployeeEligibilityException> findByEmployee_IdInAndDeletedAtIsNull(Collection<Long> employeeIds);
+
     // 🔹 Cari semua exception aktif milik rule tertentu
     List<EmployeeEligibilityException> findByCertificationRuleIdAndDeletedAtIsNull(Long ruleId);
 
@@ -0,0 +1,21 @@
+package com.bankmega.certification.repository;
+
+import com.bankmega.certification.dto.EmployeeEligibilityRow;
+import com.bankmega.certification.entity.EmployeeEligibility;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Fragment query baca eligibility sebagai projection (1 SELECT join + count terpisah)
+public interface EmployeeEligibilityQueryRepository {
+
+    Page<EmployeeEligibilityRow> findRows(Specification<EmployeeEligibility> spec, Pageable pageable);
+
+    List<EmployeeEligibilityRow> findRows(Specification<EmployeeEligibility> spec, Sort sort);
+
+    // Urut urgensi: NOT_YET_CERTIFIED dulu, lalu due date terdekat (null di akhir)
+    Page<EmployeeEligibilityRow> findRowsByUrgency(Specification<EmployeeEligibility> spec, Pageable pageable);
+}
@@ -0,0 +1,156 @@
+package com.bankmega.certification.repository;
+
+import com.bankmega.certification.dto.EmployeeEligibilityRow;
+import com.bankmega.certification.entity.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BiFunction;
+
+public class EmployeeEligibilityQueryRepositoryImpl implements EmployeeEligibilityQueryRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public Page<EmployeeEligibilityRow> findRows(Specification<EmployeeEligibility> spec, Pageable pageable) {
+        TypedQuery<Tuple> query = em.createQuery(buildSelect(spec, pageable.getSort()));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<EmployeeEligibilityRow> rows = query.getResultList().stream().map(this::toRow).toList();
+
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<EmployeeEligibilityRow> findRows(Specification<EmployeeEligibility> spec, Sort sort) {
+        return em.createQuery(buildSelect(spec, sort)).getResultList().stream().map(this::toRow).toList();
+    }
+
+    @Override
+    public Page<EmployeeEligibilityRow> findRowsByUrgency(Specification<EmployeeEligibility> spec, Pageable pageable) {
+        TypedQuery<Tuple> query = em.createQuery(buildSelect(spec, (root, cb) -> List.of(
+                cb.asc(cb.selectCase()
+                        .when(cb.equal(root.get("status"), EmployeeEligibility.EligibilityStatus.NOT_YET_CERTIFIED), 0)
+                        .otherwise(1)),
+                cb.asc(cb.selectCase().when(cb.isNull(root.get("dueDate")), 1).otherwise(0)),
+                cb.asc(root.get("dueDate")),
+                cb.asc(root.get("id")))));
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<EmployeeEligibilityRow> rows = query.getResultList().stream().map(this::toRow).toList();
+
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(spec));
+    }
+
+    // ===================== SELECT =====================
+    private CriteriaQuery<Tuple> buildSelect(Specification<EmployeeEligibility> spec, Sort sort) {
+        return buildSelect(spec, (root, cb) -> sort != null && sort.isSorted()
+                ? QueryUtils.toOrders(sort, root, cb)
+                : List.of());
+    }
+
+    private CriteriaQuery<Tuple> buildSelect(Specification<EmployeeEligibility> spec,
+            BiFunction<Root<EmployeeEligibility>, CriteriaBuilder, List<Order>> ordering) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+        Root<EmployeeEligibility> root = cq.from(EmployeeEligibility.class);
+
+        // level, sub bidang & jabatan opsional → LEFT JOIN biar baris tanpa relasi tetap muncul
+        Join<EmployeeEligibility, Employee> emp = root.join("employee", JoinType.INNER);
+        Join<Employee, JobPosition> job = emp.join("jobPosition", JoinType.LEFT);
+        Join<EmployeeEligibility, CertificationRule> rule = root.join("certificationRule", JoinType.INNER);
+        Join<CertificationRule, Certification> cert = rule.join("certification", JoinType.INNER);
+        Join<CertificationRule, CertificationLevel> level = rule.join("certificationLevel", JoinType.LEFT);
+        Join<CertificationRule, SubField> sub = rule.join("subField", JoinType.LEFT);
+
+        cq.multiselect(
+                root.get("id").alias("id"),
+                emp.get("id").alias("employeeId"),
+                emp.get("nip").alias("nip"),
+                emp.get("name").alias("employeeName"),
+                job.get("name").alias("jobPositionTitle"),
+                emp.get("effectiveDate").alias("effectiveDate"),
+                rule.get("id").alias("ruleId"),
+                cert.get("code").alias("certCode"),
+                cert.get("name").alias("certName"),
+                level.get("name").alias("levelName"),
+                level.get("level").alias("levelLevel"),
+                sub.get("name").alias("subName"),
+                sub.get("code").alias("subCode"),
+                rule.get("validityMonths").alias("validityMonths"),
+                rule.get("wajibSetelahMasuk").alias("wajibSetelahMasuk"),
+                root.get("status").alias("status"),
+                root.get("dueDate").alias("dueDate"),
+                root.get("source").alias("source"),
+                root.get("isActive").alias("isActive"),
+                root.get("createdAt").alias("createdAt"),
+                root.get("updatedAt").alias("updatedAt"));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, cq, cb) : null;
+        if (predicate != null)
+            cq.where(predicate);
+
+        List<Order> orders = ordering.apply(root, cb);
+        if (!orders.isEmpty())
+            cq.orderBy(orders);
+
+        return cq;
+    }
+
+    // ===================== COUNT =====================
+    private long count(Specification<EmployeeEligibility> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<EmployeeEligibility> root = cq.from(EmployeeEligibility.class);
+        cq.select(cb.count(root));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, cq, cb) : null;
+        if (predicate != null)
+            cq.where(predicate);
+
+        return em.createQuery(cq).getSingleResult();
+    }
+
+    private EmployeeEligibilityRow toRow(Tuple t) {
+        return EmployeeEligibilityRow.builder()
+                .id(t.get("id", Long.class))
+                .employeeId(t.get("employeeId", Long.class))
+                .nip(t.get("nip", String.class))
+                .employeeName(t.get("employeeName", String.class))
+                .jobPositionTitle(t.get("jobPositionTitle", String.class))
+                .effectiveDate(t.get("effectiveDate", LocalDate.class))
+                .certificationRuleId(t.get("ruleId", Long.class))
+                .certificationCode(t.get("certCode", String.class))
+                .certificationName(t.get("certName", String.class))
+                .certificationLevelName(t.get("levelName", String.class))
+                .certificationLevelLevel(t.get("levelLevel", Integer.class))
+                .subFieldName(t.get("subName", String.class))
+                .subFieldCode(t.get("subCode", String.class))
+                .ruleValidityMonths(t.get("validityMonths", Integer.class))
+                .ruleWajibSetelahMasuk(t.get("wajibSetelahMasuk", Integer.class))
+                .status(t.get("status", EmployeeEligibility.EligibilityStatus.class))
+                .dueDate(t.get("dueDate", LocalDate.class))
+                .source(t.get("source", EmployeeEligibility.EligibilitySource.class))
+                .isActive(t.get("isActive", Boolean.class))
+                .createdAt(t.get("createdAt", Instant.class))
+                .updatedAt(t.get("updatedAt", Instant.class))
+                .build();
+    }
+}
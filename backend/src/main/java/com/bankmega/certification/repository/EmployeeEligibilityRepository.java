@@ -5,13 +5,19 @@ import com.bankmega.certification.entity.Employee;
 import com.bankmega.certification.entity.CertificationRule;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 public interface EmployeeEligibilityRepository
-        extends JpaRepository<EmployeeEligibility, Long>, JpaSpecificationExecutor<EmployeeEligibility> {
+        extends JpaRepository<EmployeeEligibility, Long>, JpaSpecificationExecutor<EmployeeEligibility>,
+        EmployeeEligibilityQueryRepository {
 
     // ==== Find by Employee + Rule + Source (baru, lebih spesifik) ====
     Optional<EmployeeEligibility> findByEmployeeAndCertificationRuleAndSource(
@@ -33,6 +39,10 @@ public interface EmployeeEligibilityRepository
 
     List<EmployeeEligibility> findByCertificationRuleIdAndDeletedAtIsNull(Long ruleId);
 
+    @Query("SELECT DISTINCT e.employee.id FROM EmployeeEligibility e " +
+            "WHERE e.certificationRule.id IN :ruleIds AND e.deletedAt IS NULL")
+    List<Long> findEmployeeIdsByRuleIdIn(@Param("ruleIds") Collection<Long> ruleIds);
+
     // ==== Active status ====
     List<EmployeeEligibility> findByIsActiveTrueAndDeletedAtIsNull();
 
@@ -42,4 +52,106 @@ public interface EmployeeEligibilityRepository
     List<EmployeeEligibility> findByDeletedAtIsNull();
 
     List<EmployeeEligibility> findByEmployee_IdAndDeletedAtIsNull(Long employeeId);
-}
\ No newline at end of file
+
+    // ==== Rekonsiliasi set-based (native, PostgreSQL) ====
+    // Pasangan (employee, rule) yang wajib: exception aktif (BY_NAME) menang atas mapping jabatan (BY_JOB).
+    String REQUIRED_ELIGIBILITIES_CTE = "WITH required AS ( " +
+            "  SELECT DISTINCT ON (x.employee_id, x.certification_rule_id) " +
+            "         x.employee_id, x.certification_rule_id, x.source " +
+            "  FROM ( " +
+            "    SELECT ex.employee_id, ex.certification_rule_id, 'BY_NAME' AS source, 0 AS prio " +
+            "    FROM employee_eligibility_exceptions ex " +
+            "    WHERE ex.deleted_at IS NULL AND ex.is_active = true " +
+            "    UNION ALL " +
+            "    SELECT e.id, m.certification_rule_id, 'BY_JOB', 1 " +
+            "    FROM employees e " +
+            "    JOIN job_certification_mappings m " +
+            "      ON m.job_position_id = e.job_position_id AND m.deleted_at IS NULL " +
+            "  ) x " +
+            "  ORDER BY x.employee_id, x.certification_rule_id, x.prio " +
+            ") ";
+
+    // Insert pasangan baru + reaktivasi/refresh snapshot rule untuk yang sudah ada
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = REQUIRED_ELIGIBILITIES_CTE +
+            "INSERT INTO employee_eligibilities (id, employee_id, certification_rule_id, source, status, " +
+            "  validity_months, reminder_months, wajib_setelah_masuk, is_active, created_at, updated_at, deleted_at) " +
+            "SELECT nextval('employee_eligibilities_seq'), r.employee_id, r.certification_rule_id, r.source, 'NOT_YET_CERTIFIED', " +
+            "  cr.validity_months, cr.reminder_months, cr.wajib_setelah_masuk, true, now(), now(), NULL " +
+            "FROM required r JOIN certification_rules cr ON cr.id = r.certification_rule_id " +
+            "ON CONFLICT (employee_id, certification_rule_id) DO UPDATE SET " +
+            "  source = EXCLUDED.source, " +
+            "  validity_months = EXCLUDED.validity_months, " +
+            "  reminder_months = EXCLUDED.reminder_months, " +
+            "  wajib_setelah_masuk = EXCLUDED.wajib_setelah_masuk, " +
+            "  is_active = true, deleted_at = NULL, updated_at = now() " +
+            "WHERE employee_eligibilities.deleted_at IS NOT NULL " +
+            "   OR employee_eligibilities.is_active IS DISTINCT FROM true " +
+            "   OR employee_eligibilities.source IS DISTINCT FROM EXCLUDED.source " +
+            "   OR employee_eligibilities.validity_months IS DISTINCT FROM EXCLUDED.validity_months " +
+            "   OR employee_eligibilities.reminder_months IS DISTINCT FROM EXCLUDED.reminder_months " +
+            "   OR employee_eligibilities.wajib_setelah_masuk IS DISTINCT FROM EXCLUDED.wajib_setelah_masuk",
+            nativeQuery = true)
+    int upsertRequiredEligibilities();
+
+    // Nonaktifkan eligibility yang sudah tidak wajib lagi
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = REQUIRED_ELIGIBILITIES_CTE +
+            "UPDATE employee_eligibilities ee SET is_active = false, deleted_at = now(), updated_at = now() " +
+            "WHERE ee.deleted_at IS NULL AND NOT EXISTS ( " +
+            "  SELECT 1 FROM required r " +
+            "  WHERE r.employee_id = ee.employee_id AND r.certification_rule_id = ee.certification_rule_id)",
+            nativeQuery = true)
+    int deactivateUnrequiredEligibilities();
+
+    // Status & due date dari sertifikat terbaru (cert_date terakhir); hanya baris yang berubah yang ditulis
+    // Status eligibility yang seharusnya (dari sertifikat terakhir) vs status sekarang; dipakai juga outbox
+    String COMPUTED_STATUS_CTE = "WITH latest AS ( " +
+            "  SELECT DISTINCT ON (c.employee_id, c.certification_rule_id) " +
+            "         c.employee_id, c.certification_rule_id, c.valid_until, c.reminder_date " +
+            "  FROM employee_certifications c " +
+            "  WHERE c.deleted_at IS NULL " +
+            "  ORDER BY c.employee_id, c.certification_rule_id, c.cert_date DESC NULLS LAST " +
+            "), computed AS ( " +
+            "  SELECT ee.id, ee.employee_id, ee.certification_rule_id, ee.status AS current_status, " +
+            "    l.valid_until AS due_date, " +
+            "    CASE WHEN l.valid_until IS NULL THEN 'NOT_YET_CERTIFIED' " +
+            "         WHEN :today > l.valid_until THEN 'EXPIRED' " +
+            "         WHEN l.reminder_date IS NOT NULL AND :today >= l.reminder_date THEN 'DUE' " +
+            "         ELSE 'ACTIVE' END AS status " +
+            "  FROM employee_eligibilities ee " +
+            "  LEFT JOIN latest l " +
+            "    ON l.employee_id = ee.employee_id AND l.certification_rule_id = ee.certification_rule_id " +
+            "  WHERE ee.deleted_at IS NULL " +
+            ") ";
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = COMPUTED_STATUS_CTE +
+            "UPDATE employee_eligibilities ee SET status = c.status, due_date = c.due_date, updated_at = now() " +
+            "FROM computed c " +
+            "WHERE ee.id = c.id " +
+            "  AND (ee.status IS DISTINCT FROM c.status OR ee.due_date IS DISTINCT FROM c.due_date)",
+            nativeQuery = true)
+    int syncStatusWithCertifications(@Param("today") LocalDate today);
+
+    // ==== Sweep status harian: due_date = valid_until sertifikat terakhir ====
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE employee_eligibilities SET status = 'EXPIRED', updated_at = now() " +
+            "WHERE due_date >= :from AND due_date < :today " +
+            "  AND status IN ('ACTIVE', 'DUE') AND deleted_at IS NULL",
+            nativeQuery = true)
+    int expireCrossed(@Param("from") LocalDate from, @Param("today") LocalDate today);
+
+    // Reminder tidak di-snapshot di eligibility → ambil dari sertifikat yang valid_until-nya = due_date
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE employee_eligibilities ee SET status = 'DUE', updated_at = now() " +
+            "FROM employee_certifications c " +
+            "WHERE c.reminder_date > :from AND c.reminder_date <= :today " +
+            "  AND c.valid_until >= :today AND c.deleted_at IS NULL " +
+            "  AND c.employee_id = ee.employee_id " +
+            "  AND c.certification_rule_id = ee.certification_rule_id " +
+            "  AND c.valid_until = ee.due_date " +
+            "  AND ee.status = 'ACTIVE' AND ee.deleted_at IS NULL",
+            nativeQuery = true)
+    int markDueCrossed(@Param("from") LocalDate from, @Param("today") LocalDate today);
+}
@@ -5,9 +5,13 @@ import com.bankmega.certification.entity.Employee;
 import com.bankmega.certification.entity.JobPosition;
 import com.bankmega.certification.entity.Regional;
 import com.bankmega.certification.entity.Unit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -21,6 +25,33 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSp
 
     List<NipOnly> findAllBy();
 
+    // ==== Projection ringkas buat index import pegawai (key: NIP) ====
+    interface ImportIndexRow {
+        Long getId();
+
+        String getNip();
+
+        String getName();
+
+        String getEmail();
+
+        String getGender();
+
+        Long getRegionalId();
+
+        Long getDivisionId();
+
+        Long getUnitId();
+
+        Long getJobPositionId();
+    }
+
+    @Query("SELECT e.id AS id, e.nip AS nip, e.name AS name, e.email AS email, e.gender AS gender, " +
+            "r.id AS regionalId, d.id AS divisionId, u.id AS unitId, j.id AS jobPositionId " +
+            "FROM Employee e LEFT JOIN e.regional r LEFT JOIN e.division d " +
+            "LEFT JOIN e.unit u LEFT JOIN e.jobPosition j")
+    List<ImportIndexRow> findAllImportIndexRows();
+
     // ==== Soft Delete Aware Queries ====
     List<Employee> findByDeletedAtIsNull();
 
@@ -39,6 +70,17 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSp
     // ==== Batch Operations ====
     List<Employee> findByNipIn(Set<String> nips);
 
+    // 🔹 Validasi banyak pegawai sekaligus (satu query IN)
+    List<Employee> findByIdInAndDeletedAtIsNull(Collection<Long> ids);
+
+    // ==== Dipakai recompute eligibility (dirty set) ====
+    @Query("SELECT e.id FROM Employee e WHERE e.jobPosition.id IN :jobIds")
+    List<Long> findIdsByJobPositionIdIn(@Param("jobIds") Collection<Long> jobIds);
+
+    // ==== Keyset paging id pegawai (chunk refresh eligibility) ====
+    @Query("SELECT e.id FROM Employee e WHERE e.id > :afterId ORDER BY e.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     // ==== Constraints (dipakai sebelum delete master data) ====
     boolean existsByRegional(Regional regional);
 
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +23,6 @@ public interface JobCertificationMappingRepository extends
     Optional<JobCertificationMapping> findByJobPositionAndCertificationRule(JobPosition job, CertificationRule rule);
 
     List<JobCertificationMapping> findByJobPosition_IdAndDeletedAtIsNull(Long jobId);
+
+    List<JobCertificationMapping> findByJobPosition_IdInAndDeletedAtIsNull(Collection<Long> jobIds);
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.bankmega.certification.repository;
+
+import com.bankmega.certification.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Subquery x menghasilkan (employee_id, certification_rule_id, threshold_date, event_type, source);
+    // penerima = user PIC aktif yang scope-nya mencakup sertifikasi rule tsb.
+    String ENQUEUE_PREFIX = "INSERT INTO notification_outbox (recipient_user_id, recipient_email, event_type, source, " +
+            "  employee_id, certification_rule_id, threshold_date, summary, status, attempts, next_attempt_at, created_at) " +
+            "SELECT u.id, u.email, x.event_type, x.source, x.employee_id, x.certification_rule_id, x.threshold_date, " +
+            "  LEFT(concat_ws(' | ', e.nip || ' - ' || e.name, concat_ws(' ', c.code, l.name, sf.code)), 500), " +
+            "  'PENDING', 0, now(), now() " +
+            "FROM (";
+
+    String ENQUEUE_SUFFIX = ") x " +
+            "JOIN employees e ON e.id = x.employee_id " +
+            "JOIN certification_rules r ON r.id = x.certification_rule_id " +
+            "JOIN certifications c ON c.id = r.certification_id " +
+            "LEFT JOIN certification_levels l ON l.id = r.certification_level_id " +
+            "LEFT JOIN sub_fields sf ON sf.id = r.sub_field_id " +
+            "JOIN pic_certification_scopes s ON s.certification_id = r.certification_id " +
+            "JOIN users u ON u.id = s.user_id AND u.is_active = true AND u.deleted_at IS NULL " +
+            "ON CONFLICT DO NOTHING";
+
+    // ==== Enqueue saat write (create/update sertifikat, sync eligibility) ====
+    @Modifying
+    @Query(value = ENQUEUE_PREFIX +
+            "SELECT CAST(:employeeId AS bigint) AS employee_id, CAST(:ruleId AS bigint) AS certification_rule_id, " +
+            "  CAST(:thresholdDate AS date) AS threshold_date, " +
+            "  CAST(:eventType AS varchar) AS event_type, CAST(:source AS varchar) AS source" +
+            ENQUEUE_SUFFIX,
+            nativeQuery = true)
+    int enqueue(@Param("employeeId") Long employeeId,
+            @Param("ruleId") Long ruleId,
+            @Param("thresholdDate") LocalDate thresholdDate,
+            @Param("eventType") String eventType,
+            @Param("source") String source);
+
+    // ==== Enqueue dari sweep harian: predikat sama persis dengan UPDATE di repo sertifikat/eligibility ====
+    @Modifying
+    @Query(value = ENQUEUE_PREFIX +
+            "SELECT employee_id, certification_rule_id, valid_until AS threshold_date, " +
+            "  'EXPIRED' AS event_type, 'CERTIFICATION' AS source " +
+            "FROM employee_certifications " +
+            "WHERE valid_until >= :from AND valid_until < :today " +
+            "  AND status IN ('ACTIVE', 'DUE') AND deleted_at IS NULL" +
+            ENQUEUE_SUFFIX,
+            nativeQuery = true)
+    int enqueueCertificationsExpiring(@Param("from") LocalDate from, @Param("today") LocalDate today);
+
+    @Modifying
+    @Query(value = ENQUEUE_PREFIX +
+            "SELECT employee_id, certification_rule_id, valid_until AS threshold_date, " +
+            "  'DUE' AS event_type, 'CERTIFICATION' AS source " +
+            "FROM employee_certifications " +
+            "WHERE reminder_date > :from AND reminder_date <= :today " +
+            "  AND valid_until >= :today " +
+            "  AND status = 'ACTIVE' AND deleted_at IS NULL" +
+            ENQUEUE_SUFFIX,
+            nativeQuery = true)
+    int enqueueCertificationsDue(@Param("from") LocalDate from, @Param("today") LocalDate today);
+
+    @Modifying
+    @Query(value = ENQUEUE_PREFIX +
+            "SELECT employee_id, certification_rule_id, due_date AS threshold_date, " +
+            "  'EXPIRED' AS event_type, 'ELIGIBILITY' AS source " +
+            "FROM employee_eligibilities " +
+            "WHERE due_date >= :from AND due_date < :today " +
+            "  AND status IN ('ACTIVE', 'DUE') AND deleted_at IS NULL" +
+            ENQUEUE_SUFFIX,
+            nativeQuery = true)
+    int enqueueEligibilitiesExpiring(@Param("from") LocalDate from, @Param("today") LocalDate today);
+
+    @Modifying
+    @Query(value = ENQUEUE_PREFIX +
+            "SELECT ee.employee_id, ee.certification_rule_id, ee.due_date AS threshold_date, " +
+            "  'DUE' AS event_type, 'ELIGIBILITY' AS source " +
+            "FROM employee_eligibilities ee " +
+            "JOIN employee_certifications ec ON ec.employee_id = ee.employee_id " +
+            "  AND ec.certification_rule_id = ee.certification_rule_id " +
+            "  AND ec.valid_until = ee.due_date AND ec.deleted_at IS NULL " +
+            "WHERE ec.reminder_date > :from AND ec.reminder_date <= :today " +
+            "  AND ec.valid_until >= :today " +
+            "  AND ee.status = 'ACTIVE' AND ee.deleted_at IS NULL" +
+            ENQUEUE_SUFFIX,
+            nativeQuery = true)
+    int enqueueEligibilitiesDue(@Param("from") LocalDate from, @Param("today") LocalDate today);
+
+    // Rekonsiliasi set-based: transisi ke DUE/EXPIRED yang akan ditulis syncStatusWithCertifications
+    @Modifying
+    @Query(value = EmployeeEligibilityRepository.COMPUTED_STATUS_CTE + ENQUEUE_PREFIX +
+            "SELECT c.employee_id, c.certification_rule_id, c.due_date AS threshold_date, " +
+            "  c.status AS event_type, 'ELIGIBILITY' AS source " +
+            "FROM computed c " +
+            "WHERE c.status IN ('DUE', 'EXPIRED') AND c.current_status IS DISTINCT FROM c.status" +
+            ENQUEUE_SUFFIX,
+            nativeQuery = true)
+    int enqueueReconcileTransitions(@Param("today") LocalDate today);
+
+    // ==== Dispatcher ====
+
+    // Klaim batch: SKIP LOCKED supaya dispatcher paralel (multi instance) tidak ambil baris yang sama
+    @Query(value = "SELECT * FROM notification_outbox " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY recipient_email, id " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<NotificationOutbox> lockPending(@Param("now") Instant now, @Param("limit") int limit);
+
+    // Baris SENDING yang klaimnya kedaluwarsa (instance mati di tengah kirim) → balik ke antrian
+    @Modifying
+    @Query(value = "UPDATE notification_outbox SET status = 'PENDING', claimed_at = NULL " +
+            "WHERE status = 'SENDING' AND claimed_at < :staleBefore",
+            nativeQuery = true)
+    int releaseStaleClaims(@Param("staleBefore") Instant staleBefore);
+}
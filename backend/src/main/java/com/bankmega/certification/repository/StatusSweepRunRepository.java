@@ -0,0 +1,12 @@
+package com.bankmega.certification.repository;
+
+import com.bankmega.certification.entity.StatusSweepRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface StatusSweepRunRepository extends JpaRepository<StatusSweepRun, Long> {
+
+    // 🔹 Run sukses terakhir → batas bawah rentang sweep berikutnya
+    Optional<StatusSweepRun> findFirstByStatusOrderBySweepDateDesc(StatusSweepRun.Status status);
+}
@@ -1,5 +1,6 @@
 package com.bankmega.certification.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,29 +21,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @SuppressWarnings("null")
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
+        Claims claims = null;
 
         if (StringUtils.hasText(authHeader) && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
             try {
-                username = JwtUtil.getUsernameFromToken(token);
+                // parse + verifikasi sekali; sisa pengecekan pakai claims ini
+                claims = JwtUtil.parseClaims(authHeader.substring(7));
             } catch (Exception e) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
             }
         }
 
+        String username = claims != null ? claims.getSubject() : null;
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = customUserDetailsService.loadUserByUsername(username);
+            var userDetails = principalCache.get(username, claims.getId(),
+                    () -> (UserPrincipal) customUserDetailsService.loadUserByUsername(username));
 
-            if (JwtUtil.validateToken(token, userDetails.getUsername())) {
+            if (JwtUtil.validateClaims(claims, userDetails.getUsername())) {
                 var auth = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities()
                 );
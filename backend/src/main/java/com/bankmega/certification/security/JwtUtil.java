@@ -1,12 +1,22 @@
 package com.bankmega.certification.security;
 
+import com.bankmega.certification.cache.TtlCache;
+import com.bankmega.certification.dto.CacheStatsResponse;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
 import java.util.function.Function;
 
 public class JwtUtil {
@@ -15,33 +25,59 @@ public class JwtUtil {
 
     private static final SecretKey SECRET_KEY = Keys.hmacShaKeyFor(SECRET.getBytes());
 
-    private static Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(SECRET_KEY)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    // parser jjwt immutable & thread-safe → cukup dibangun sekali
+    private static final JwtParser PARSER = Jwts.parser().verifyWith(SECRET_KEY).build();
+
+    // Token yang baru diverifikasi: key = SHA-256 token, entry tidak dipakai lewat dari exp token
+    private static final TtlCache<String, Claims> VERIFIED = new TtlCache<>(
+            "security.verifiedToken", 10_000, Duration.ofMinutes(5));
+
+    private JwtUtil() {
+    }
+
+    /**
+     * Parse + verifikasi signature sekali, hasilnya dipakai untuk semua pengecekan di request yang sama.
+     * Token yang sudah pernah lolos verifikasi diambil dari cache tanpa HMAC/JSON parse ulang.
+     */
+    public static Claims parseClaims(String token) {
+        String key = sha256(token);
+        Claims cached = VERIFIED.get(key);
+        if (cached != null) {
+            if (isExpired(cached)) {
+                VERIFIED.invalidate(key);
+                throw new ExpiredJwtException(null, cached, "JWT expired");
+            }
+            return cached;
+        }
+
+        Claims claims = PARSER.parseSignedClaims(token).getPayload();
+        VERIFIED.put(key, claims);
+        return claims;
     }
 
     public static <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseClaims(token));
     }
 
     public static String getUsernameFromToken(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    public static String getTokenId(String token) {
+        return extractClaim(token, Claims::getId);
+    }
+
     public static String getRoleFromToken(String token) {
         return extractClaim(token, claims -> claims.get("role", String.class));
     }
 
-    private static boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
     }
 
     public static String generateToken(String username, String roleName) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .claim("role", roleName)
                 .issuedAt(new Date(System.currentTimeMillis()))
@@ -50,13 +86,30 @@ public class JwtUtil {
                 .compact();
     }
 
+    // Validasi dari claims yang sudah di-parse (tanpa parse ulang)
+    public static boolean validateClaims(Claims claims, String username) {
+        return claims.getSubject() != null && claims.getSubject().equals(username) && !isExpired(claims);
+    }
+
     public static boolean validateToken(String token, String username) {
         try {
-            final String usernameInToken = getUsernameFromToken(token);
-            return (usernameInToken.equals(username) && !isTokenExpired(token));
+            return validateClaims(parseClaims(token), username);
         } catch (JwtException | IllegalArgumentException e) {
             System.err.println("Invalid JWT Token: " + e.getMessage());
             return false;
         }
     }
-}
\ No newline at end of file
+
+    public static CacheStatsResponse verifiedTokenStats() {
+        return VERIFIED.stats();
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+}
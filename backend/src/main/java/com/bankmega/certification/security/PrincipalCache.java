@@ -0,0 +1,68 @@
+package com.bankmega.certification.security;
+
+import com.bankmega.certification.cache.TtlCache;
+import com.bankmega.certification.dto.CacheStatsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache principal hasil {@link CustomUserDetailsService} per (username, token id),
+ * supaya filter JWT tidak query user + role di setiap request.
+ * Di-evict eksplisit oleh UserService / RoleService saat data user atau role berubah.
+ */
+@Component
+public class PrincipalCache {
+
+    private final TtlCache<String, UserPrincipal> cache;
+
+    public PrincipalCache(@Value("${cache.principal.max-size:10000}") int maxSize,
+            @Value("${cache.principal.ttl-minutes:5}") long ttlMinutes) {
+        this.cache = new TtlCache<>("security.principal", maxSize, Duration.ofMinutes(ttlMinutes));
+    }
+
+    public UserPrincipal get(String username, String tokenId, Supplier<UserPrincipal> loader) {
+        return cache.get(username + "|" + (tokenId != null ? tokenId : ""), k -> loader.get());
+    }
+
+    // ===================== INVALIDATION HOOKS =====================
+    public void evictUser(Long userId) {
+        evict(p -> Objects.equals(p.getId(), userId));
+    }
+
+    public void evictRole(Long roleId) {
+        evict(p -> p.getRole() != null && Objects.equals(p.getRole().getId(), roleId));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+        afterCommit(cache::invalidateAll);
+    }
+
+    public CacheStatsResponse stats() {
+        return cache.stats();
+    }
+
+    // Buang sekarang, dan sekali lagi setelah commit biar request paralel tidak nge-cache data lama
+    private void evict(Predicate<UserPrincipal> predicate) {
+        cache.invalidateIf(predicate);
+        afterCommit(() -> cache.invalidateIf(predicate));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -4,7 +4,6 @@ import com.bankmega.certification.dto.BatchRequest;
 import com.bankmega.certification.dto.BatchResponse;
 import com.bankmega.certification.entity.Batch;
 import com.bankmega.certification.entity.CertificationRule;
-import com.bankmega.certification.entity.EmployeeBatch;
 import com.bankmega.certification.entity.Institution;
 import com.bankmega.certification.exception.NotFoundException;
 import com.bankmega.certification.repository.BatchRepository;
@@ -19,6 +18,9 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -123,7 +125,9 @@ public class BatchService {
             );
         }
 
-        return batchRepository.findAll(spec, pageable).map(this::toResponse);
+        Page<Batch> page = batchRepository.findAll(spec, pageable);
+        Map<Long, EmployeeBatchRepository.BatchCountRow> counts = countParticipants(page.getContent());
+        return page.map(b -> toResponse(b, counts.get(b.getId())));
     }
 
     // =======================
@@ -152,13 +156,25 @@ public class BatchService {
                 .build();
     }
 
+    // Jumlah peserta + lulus untuk banyak batch sekaligus (1 query GROUP BY, bukan 2 count per baris)
+    private Map<Long, EmployeeBatchRepository.BatchCountRow> countParticipants(List<Batch> batches) {
+        if (batches.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = batches.stream().map(Batch::getId).toList();
+        return employeeBatchRepository.countByBatchIds(ids).stream()
+                .collect(Collectors.toMap(EmployeeBatchRepository.BatchCountRow::getBatchId, r -> r));
+    }
+
     private BatchResponse toResponse(Batch b) {
+        return toResponse(b, countParticipants(List.of(b)).get(b.getId()));
+    }
+
+    private BatchResponse toResponse(Batch b, EmployeeBatchRepository.BatchCountRow counts) {
         CertificationRule rule = b.getCertificationRule();
 
-        long totalParticipants = employeeBatchRepository.countByBatch_IdAndDeletedAtIsNull(b.getId());
-        long totalPassed = employeeBatchRepository.countByBatch_IdAndStatusAndDeletedAtIsNull(
-                b.getId(), EmployeeBatch.Status.PASSED
-        );
+        long totalParticipants = counts != null ? counts.getTotalParticipants() : 0L;
+        long totalPassed = counts != null && counts.getTotalPassed() != null ? counts.getTotalPassed() : 0L;
 
         return BatchResponse.builder()
                 .id(b.getId())
@@ -0,0 +1,344 @@
+package com.bankmega.certification.service;
+
+import com.bankmega.certification.dto.CertificateArchiveEntryResult;
+import com.bankmega.certification.dto.CertificateArchiveEntryResult.Status;
+import com.bankmega.certification.dto.CertificateArchiveUploadResponse;
+import com.bankmega.certification.entity.EmployeeCertification;
+import com.bankmega.certification.repository.EmployeeCertificationRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Bulk upload scan sertifikat dari ZIP. Nama file di dalam ZIP mengikuti konvensi
+ * NIP_KODE[_Llevel][_SUB][_apa-saja].png|jpg (sama dengan nama file download).
+ * Entry dibaca streaming satu per satu (tidak di-extract ke memori), dicocokkan di thread pembaca
+ * (urutan deterministik: entry pertama yang menang), lalu simpan + link dikerjakan worker pool terbatas.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CertificateArchiveUploadService {
+
+    private static final Pattern LEVEL_TOKEN = Pattern.compile("^L\\d+$", Pattern.CASE_INSENSITIVE);
+
+    private final EmployeeCertificationRepository certificationRepo;
+    private final EmployeeCertificationService certificationService;
+    private final FileStorageService fileStorageService;
+
+    @Value("${certificate.bulk-upload.workers:4}")
+    private int workers;
+
+    @Value("${certificate.bulk-upload.max-entries:2000}")
+    private int maxEntries;
+
+    @Getter
+    @AllArgsConstructor
+    private static class Candidate {
+        private final Long id;
+        private final String prefix;
+        private final boolean hasFile;
+    }
+
+    public CertificateArchiveUploadResponse dryRun(MultipartFile file) {
+        return process(file, true);
+    }
+
+    public CertificateArchiveUploadResponse confirm(MultipartFile file) {
+        return process(file, false);
+    }
+
+    private CertificateArchiveUploadResponse process(MultipartFile file, boolean dryRun) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("File ZIP tidak boleh kosong");
+        }
+
+        List<CertificateArchiveEntryResult> results = new ArrayList<>();
+        List<Future<?>> pending = new ArrayList<>();
+        Map<String, List<Candidate>> candidatesByNip = new HashMap<>();
+        Map<Long, String> claimed = new HashMap<>();
+        boolean truncated = false;
+
+        // queue terbatas + CallerRuns → pembaca ZIP ikut melambat kalau worker penuh (temp file tidak menumpuk)
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        try (ZipInputStream zip = new ZipInputStream(file.getInputStream())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory() || isJunk(entry.getName()))
+                    continue;
+                if (results.size() >= maxEntries) {
+                    // berhenti baca: entry yang sudah diproses tetap dilaporkan, sisanya tidak disentuh
+                    CertificateArchiveEntryResult over = CertificateArchiveEntryResult.builder()
+                            .entryName(entry.getName())
+                            .build();
+                    reject(over, Status.SKIPPED, "Batas " + maxEntries
+                            + " file per ZIP tercapai; entry ini dan sesudahnya tidak diproses");
+                    results.add(over);
+                    truncated = true;
+                    break;
+                }
+
+                String name = baseName(entry.getName());
+                CertificateArchiveEntryResult result = CertificateArchiveEntryResult.builder()
+                        .entryName(entry.getName())
+                        .build();
+                results.add(result);
+
+                String contentType = contentTypeOf(name);
+                if (contentType == null) {
+                    reject(result, Status.INVALID, "Hanya file PNG, JPG, atau JPEG yang diperbolehkan");
+                    continue;
+                }
+
+                if (!match(name, result, candidatesByNip, claimed))
+                    continue;
+
+                // ukuran di header ZIP (kalau ada) sudah cukup buat menolak tanpa membaca isinya
+                if (entry.getSize() > fileStorageService.getMaxImageBytes()) {
+                    rejectTooLarge(result);
+                    continue;
+                }
+
+                if (dryRun) {
+                    // ukur isi entry (tanpa tulis ke disk) supaya hasil dry run sama dengan confirm
+                    if (copyWithinLimit(zip, OutputStream.nullOutputStream()))
+                        result.setStatus(Status.MATCHED);
+                    else
+                        rejectTooLarge(result);
+                    continue;
+                }
+
+                // entry harus dibaca di thread ini (ZipInputStream sekuensial) → spool ke disk, worker yang simpan
+                Path tmp = spool(zip, result);
+                if (tmp == null)
+                    continue;
+
+                pending.add(pool.submit(() -> store(result, tmp, name, contentType)));
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("File ZIP tidak valid: " + e.getMessage(), e);
+        } finally {
+            awaitAll(pending);
+            pool.shutdown();
+        }
+
+        return summarize(file.getOriginalFilename(), results, dryRun, truncated);
+    }
+
+    // ===================== MATCHING =====================
+    private boolean match(String name, CertificateArchiveEntryResult result,
+            Map<String, List<Candidate>> candidatesByNip, Map<Long, String> claimed) {
+        String stem = stripExtension(name).toUpperCase(Locale.ROOT);
+        int sep = stem.indexOf('_');
+        if (sep <= 0) {
+            reject(result, Status.UNMATCHED, "Nama file harus NIP_KODE[_Llevel][_SUB]");
+            return false;
+        }
+
+        String nip = stripExtension(name).substring(0, sep);
+        List<Candidate> candidates = candidatesByNip.computeIfAbsent(nip, this::loadCandidates);
+
+        // prefix terpanjang yang cocok menang (NIP_KODE_L2_SUB lebih spesifik dari NIP_KODE_L2)
+        int bestLength = -1;
+        List<Candidate> best = new ArrayList<>();
+        for (Candidate c : candidates) {
+            if (!matchesPrefix(stem, c.getPrefix()))
+                continue;
+            if (c.getPrefix().length() > bestLength) {
+                bestLength = c.getPrefix().length();
+                best.clear();
+            }
+            if (c.getPrefix().length() == bestLength)
+                best.add(c);
+        }
+
+        if (best.isEmpty()) {
+            reject(result, Status.UNMATCHED, candidates.isEmpty()
+                    ? "NIP " + nip + " tidak punya sertifikasi aktif"
+                    : "Tidak ada sertifikasi yang cocok untuk " + name);
+            return false;
+        }
+        if (best.size() > 1) {
+            reject(result, Status.AMBIGUOUS, "Cocok ke " + best.size() + " sertifikasi");
+            return false;
+        }
+
+        Candidate match = best.get(0);
+        result.setEmployeeCertificationId(match.getId());
+        result.setMatchedName(match.getPrefix());
+        result.setReplacesExisting(match.isHasFile());
+
+        String firstEntry = claimed.putIfAbsent(match.getId(), result.getEntryName());
+        if (firstEntry != null) {
+            reject(result, Status.DUPLICATE, "Sertifikasi sudah diisi oleh " + firstEntry);
+            return false;
+        }
+        return true;
+    }
+
+    private List<Candidate> loadCandidates(String nip) {
+        return certificationRepo.findForFileMatching(nip).stream()
+                .map(ec -> new Candidate(ec.getId(),
+                        FileStorageService.conventionalName(ec).toUpperCase(Locale.ROOT),
+                        ec.getFileUrl() != null))
+                .toList();
+    }
+
+    private boolean matchesPrefix(String stem, String prefix) {
+        if (stem.equals(prefix))
+            return true;
+        if (!stem.startsWith(prefix + "_"))
+            return false;
+        // sisa nama berupa level (L2) berarti file untuk level lain, bukan rule tanpa level ini
+        String next = stem.substring(prefix.length() + 1).split("_", 2)[0];
+        return !LEVEL_TOKEN.matcher(next).matches();
+    }
+
+    // ===================== STORE =====================
+    private Path spool(ZipInputStream zip, CertificateArchiveEntryResult result) throws IOException {
+        Path tmp = Files.createTempFile("cert-zip-", ".tmp");
+        boolean withinLimit;
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            withinLimit = copyWithinLimit(zip, out);
+        }
+        if (!withinLimit) {
+            Files.deleteIfExists(tmp);
+            rejectTooLarge(result);
+            return null;
+        }
+        return tmp;
+    }
+
+    // salin isi entry sampai batas max-image-bytes; false kalau entry lebih besar (sisa entry tidak dibaca)
+    private boolean copyWithinLimit(ZipInputStream zip, OutputStream out) throws IOException {
+        long limit = fileStorageService.getMaxImageBytes();
+        long written = 0;
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = zip.read(buffer)) > 0) {
+            written += n;
+            if (written > limit)
+                return false;
+            out.write(buffer, 0, n);
+        }
+        return true;
+    }
+
+    private void rejectTooLarge(CertificateArchiveEntryResult result) {
+        reject(result, Status.INVALID,
+                "Ukuran file maksimal " + (fileStorageService.getMaxImageBytes() / (1024 * 1024)) + " MB");
+    }
+
+    // satu transaksi per entry: gagal satu tidak membatalkan entry lain
+    private void store(CertificateArchiveEntryResult result, Path tmp, String name, String contentType) {
+        try {
+            certificationService.attachArchivedFile(result.getEmployeeCertificationId(), tmp, name, contentType);
+            result.setStatus(Status.STORED);
+        } catch (Exception e) {
+            log.warn("Bulk upload {} gagal: {}", result.getEntryName(), e.getMessage());
+            reject(result, Status.ERROR, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // temp dir dibersihkan OS
+            }
+        }
+    }
+
+    private void awaitAll(List<Future<?>> pending) {
+        for (Future<?> f : pending) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // store() sudah menangkap exception-nya sendiri
+                log.error("Worker bulk upload gagal", e.getCause());
+            }
+        }
+    }
+
+    // ===================== HELPER =====================
+    private CertificateArchiveUploadResponse summarize(String fileName,
+            List<CertificateArchiveEntryResult> results, boolean dryRun, boolean truncated) {
+        int matched = 0, stored = 0, skipped = 0, errors = 0;
+        for (CertificateArchiveEntryResult r : results) {
+            switch (r.getStatus()) {
+                case MATCHED -> matched++;
+                case STORED -> {
+                    matched++;
+                    stored++;
+                }
+                case ERROR -> errors++;
+                default -> skipped++;
+            }
+        }
+
+        String message = dryRun
+                ? "Dry run selesai: " + matched + " file cocok, " + skipped + " dilewati"
+                : "Upload selesai: " + stored + " file tersimpan, " + skipped + " dilewati, " + errors + " gagal";
+        if (truncated)
+            message += ". ZIP berisi lebih dari " + maxEntries + " file, sisanya tidak diproses";
+
+        return CertificateArchiveUploadResponse.builder()
+                .fileName(fileName)
+                .processed(results.size())
+                .matched(matched)
+                .stored(stored)
+                .skipped(skipped)
+                .errors(errors)
+                .entries(results)
+                .dryRun(dryRun)
+                .truncated(truncated)
+                .message(message)
+                .build();
+    }
+
+    private static void reject(CertificateArchiveEntryResult result, Status status, String message) {
+        result.setStatus(status);
+        result.setMessage(message);
+    }
+
+    // folder metadata macOS / file tersembunyi
+    private static boolean isJunk(String entryName) {
+        return entryName.startsWith("__MACOSX/") || baseName(entryName).startsWith(".");
+    }
+
+    private static String baseName(String entryName) {
+        int slash = Math.max(entryName.lastIndexOf('/'), entryName.lastIndexOf('\\'));
+        return slash >= 0 ? entryName.substring(slash + 1) : entryName;
+    }
+
+    private static String stripExtension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static String contentTypeOf(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".png"))
+            return "image/png";
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg"))
+            return "image/jpeg";
+        return null;
+    }
+}
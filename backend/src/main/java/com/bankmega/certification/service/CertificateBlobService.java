@@ -0,0 +1,73 @@
+package com.bankmega.certification.service;
+
+import com.bankmega.certification.repository.CertificateBlobRepository;
+import com.bankmega.certification.storage.CertificateStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Storage sertifikat content-addressed: key = SHA-256 isi + extension, jadi upload ulang gambar
+ * yang sama tidak menambah file baru dan snapshot history tetap valid (blob tidak dihapus eager).
+ * Blob yang sudah tidak dirujuk dibersihkan oleh {@link CertificateStorageGcService}.
+ */
+@Service
+@RequiredArgsConstructor
+public class CertificateBlobService {
+
+    private static final Pattern BLOB_KEY = Pattern.compile("^([0-9a-f]{64})\\.(jpg|png)$");
+
+    private final CertificateBlobRepository blobRepo;
+    private final CertificateStorage storage;
+
+    public static String keyFor(String hash, String contentType) {
+        return hash + ("image/png".equals(contentType) ? ".png" : ".jpg");
+    }
+
+    /** Hash dari key blob, atau null kalau key-nya file lama (nama NIP_kode_timestamp). */
+    public static String hashOf(String key) {
+        if (key == null)
+            return null;
+        var m = BLOB_KEY.matcher(key);
+        return m.matches() ? m.group(1) : null;
+    }
+
+    /**
+     * Simpan isi (sudah di-spool ke disk) sebagai blob. Kalau blob dengan hash sama sudah ada,
+     * cukup daftarkan ulang tanpa upload. Lock per hash mencegah GC menghapus blob di tengah proses.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String store(String hash, String contentType, Path content) throws IOException {
+        String key = keyFor(hash, contentType);
+        long size = Files.size(content);
+
+        blobRepo.lockHash(hash);
+        blobRepo.upsertUploaded(hash, key, contentType, size);
+
+        if (storage.stat(key).isEmpty()) {
+            try (InputStream in = Files.newInputStream(content)) {
+                storage.put(key, in, size, contentType);
+            }
+        }
+        return key;
+    }
+
+    // 🔹 EmployeeCertification mulai / berhenti merujuk blob (file lama tidak punya baris blob → no-op)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void retain(String key) {
+        blobRepo.adjustRefCount(key, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(String key) {
+        if (key != null)
+            blobRepo.adjustRefCount(key, -1);
+    }
+}
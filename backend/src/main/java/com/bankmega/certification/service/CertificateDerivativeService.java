@@ -0,0 +1,221 @@
+package com.bankmega.certification.service;
+
+import com.bankmega.certification.exception.BadRequestException;
+import com.bankmega.certification.storage.CertificateStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Turunan gambar sertifikat (thumbnail & preview) buat list/preview di frontend.
+ * Dibuat lazy saat pertama diminta, disimpan di storage yang sama dengan key berbasis hash isi file,
+ * jadi otomatis "baru" kalau file di-reupload; turunan lama dibuang lewat {@link #evict(String)}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CertificateDerivativeService {
+
+    public enum Size {
+        ORIGINAL(0),
+        THUMB(240),
+        MEDIUM(1024);
+
+        private final int maxEdge;
+
+        Size(int maxEdge) {
+            this.maxEdge = maxEdge;
+        }
+
+        public static Size from(String value) {
+            if (value == null || value.isBlank())
+                return ORIGINAL;
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Size tidak valid: " + value + " (original, thumb, medium)");
+            }
+        }
+    }
+
+    public static final String CONTENT_TYPE = "image/jpeg";
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final CertificateStorage storage;
+
+    // request paralel untuk turunan yang sama cukup generate sekali
+    private final ConcurrentMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public static String key(String fileHash, Size size) {
+        return "derivative_" + size.name().toLowerCase(Locale.ROOT) + "_" + fileHash + ".jpg";
+    }
+
+    /**
+     * Pastikan turunan ada di storage, return key-nya.
+     * Kosong kalau file asli tidak bisa di-decode ImageIO (format tidak dikenal / rusak) → pemanggil layani original.
+     */
+    public Optional<String> ensure(String originalKey, String fileHash, Size size) throws IOException {
+        String key = key(fileHash, size);
+        if (storage.stat(key).isPresent())
+            return Optional.of(key);
+
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                running.join();
+                return Optional.of(key);
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UndecodableImageException)
+                    return Optional.empty();
+                throw new IOException("Gagal membuat turunan " + key, e.getCause());
+            }
+        }
+
+        try {
+            generate(originalKey, key, size.maxEdge);
+            mine.complete(null);
+            return Optional.of(key);
+        } catch (UndecodableImageException e) {
+            mine.completeExceptionally(e);
+            log.debug("Turunan {} tidak dibuat: {}", key, e.getMessage());
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Buang semua turunan untuk isi file ini (dipanggil saat file di-reupload / dihapus). */
+    public void evict(String fileHash) {
+        if (fileHash == null)
+            return;
+        for (Size size : Size.values()) {
+            if (size == Size.ORIGINAL)
+                continue;
+            try {
+                storage.delete(key(fileHash, size));
+            } catch (IOException e) {
+                log.warn("Gagal hapus turunan {} {}: {}", size, fileHash, e.getMessage());
+            }
+        }
+    }
+
+    // ===================== GENERATE =====================
+    private void generate(String originalKey, String targetKey, int maxEdge) throws IOException {
+        BufferedImage source = decode(originalKey, maxEdge);
+        BufferedImage scaled = scale(source, maxEdge);
+
+        // tulis ke temp file dulu, baru di-stream ke storage (ukuran jadi diketahui)
+        Path tmp = Files.createTempFile("cert-derivative-", ".jpg");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                writeJpeg(scaled, out);
+            }
+            try (InputStream in = Files.newInputStream(tmp)) {
+                storage.put(targetKey, in, Files.size(tmp), CONTENT_TYPE);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Decode dengan subsampling: foto HP 12MP tidak perlu di-decode penuh ke heap
+     * kalau targetnya cuma 240px. Subsampling dibatasi supaya hasil tetap >= 2x target sebelum di-scale halus.
+     */
+    private BufferedImage decode(String originalKey, int maxEdge) throws IOException {
+        try (InputStream in = storage.open(originalKey);
+                ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext())
+                throw new UndecodableImageException("Format gambar tidak dikenali: " + originalKey, null);
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longest / (maxEdge * 2));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } catch (IIOException e) {
+                throw new UndecodableImageException("Gambar rusak / tidak bisa di-decode: " + originalKey, e);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // File asli bukan gambar yang bisa dibaca ImageIO; bukan error storage
+    private static class UndecodableImageException extends IOException {
+        UndecodableImageException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source, int maxEdge) {
+        int w = source.getWidth();
+        int h = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(w, h));
+        int tw = Math.max(1, (int) Math.round(w * ratio));
+        int th = Math.max(1, (int) Math.round(h * ratio));
+
+        // JPEG tidak punya alpha → PNG transparan dialasi putih
+        BufferedImage target = new BufferedImage(tw, th, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, tw, th);
+            g.drawImage(source, 0, 0, tw, th, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.bankmega.certification.service;
+
+import com.bankmega.certification.repository.CertificateBlobRepository;
+import com.bankmega.certification.storage.CertificateStorage;
+import com.bankmega.certification.storage.StoredObject;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * GC storage sertifikat:
+ * 1. rekonsiliasi ref_count blob dari DB (sertifikat + snapshot history),
+ * 2. hapus blob yatim yang sudah lewat grace period,
+ * 3. telusuri storage paralel & buang object yang tidak dikenal DB (file lama tak terpakai,
+ *    upload yang transaksinya rollback, turunan thumb/medium dari hash yang sudah mati).
+ * Grace period melindungi upload yang object-nya sudah tertulis tapi transaksinya belum commit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CertificateStorageGcService {
+
+    private static final Pattern DERIVATIVE_KEY = Pattern.compile("^derivative_[a-z]+_([0-9a-f]{64})\\.jpg$");
+
+    private final CertificateBlobRepository blobRepo;
+    private final CertificateStorage storage;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${storage.gc.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${storage.gc.parallelism:4}")
+    private int parallelism;
+
+    @Value("${storage.gc.dry-run:false}")
+    private boolean dryRun;
+
+    @Scheduled(cron = "${storage.gc.cron:0 30 2 * * *}")
+    public void nightly() {
+        collect();
+    }
+
+    public synchronized void collect() {
+        long started = System.currentTimeMillis();
+        Instant cutoff = Instant.now().minus(Duration.ofHours(graceHours));
+
+        Integer reconciled = transactionTemplate.execute(status -> blobRepo.reconcileRefCounts());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // ===================== BLOB YATIM =====================
+            List<String> reclaimable = blobRepo.findReclaimable(cutoff);
+            AtomicInteger blobsDeleted = new AtomicInteger();
+            pool.submit(() -> reclaimable.parallelStream().forEach(hash -> {
+                if (reclaimBlob(hash, cutoff))
+                    blobsDeleted.incrementAndGet();
+            })).join();
+
+            // ===================== OBJECT TAK DIKENAL =====================
+            Set<String> blobKeys = new HashSet<>(blobRepo.findAllStorageKeys());
+            Set<String> referencedUrls = new HashSet<>(blobRepo.findReferencedFileUrls());
+            Set<String> liveHashes = new HashSet<>(blobRepo.findLiveHashes());
+
+            ConcurrentLinkedQueue<StoredObject> strays = new ConcurrentLinkedQueue<>();
+            AtomicInteger scanned = new AtomicInteger();
+            pool.submit(() -> {
+                try {
+                    storage.forEachKey(object -> {
+                        scanned.incrementAndGet();
+                        if (object.getLastModified().isBefore(cutoff)
+                                && !isReferenced(object.getKey(), blobKeys, referencedUrls, liveHashes))
+                            strays.add(object);
+                    });
+                } catch (IOException e) {
+                    throw new IllegalStateException("Gagal menelusuri storage", e);
+                }
+            }).join();
+
+            AtomicInteger straysDeleted = new AtomicInteger();
+            pool.submit(() -> strays.parallelStream().forEach(object -> {
+                if (reclaimStray(object.getKey()))
+                    straysDeleted.incrementAndGet();
+            })).join();
+
+            log.info("Storage GC{}: reconcile={} blob dihapus={}/{} object discan={} stray dihapus={}/{} ({} ms)",
+                    dryRun ? " (dry-run)" : "", reconciled,
+                    blobsDeleted.get(), reclaimable.size(),
+                    scanned.get(), straysDeleted.get(), strays.size(),
+                    System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("Storage GC gagal: {}", e.getMessage(), e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private boolean isReferenced(String key, Set<String> blobKeys, Set<String> referencedUrls, Set<String> liveHashes) {
+        if (blobKeys.contains(key) || referencedUrls.contains(key))
+            return true;
+        Matcher derivative = DERIVATIVE_KEY.matcher(key);
+        if (derivative.matches())
+            return liveHashes.contains(derivative.group(1));
+        // file sementara (temp upload) tidak ikut dihapus dari sini
+        return key.startsWith(".");
+    }
+
+    // Re-check di bawah lock hash: upload yang sama di tengah jalan akan menunggu / membatalkan penghapusan
+    private boolean reclaimBlob(String hash, Instant cutoff) {
+        Boolean deleted = transactionTemplate.execute(status -> {
+            blobRepo.lockHash(hash);
+            return blobRepo.findReclaimable(hash, cutoff).map(blob -> {
+                if (dryRun)
+                    return true;
+                try {
+                    storage.delete(blob.getStorageKey());
+                    for (CertificateDerivativeService.Size size : CertificateDerivativeService.Size.values()) {
+                        if (size != CertificateDerivativeService.Size.ORIGINAL)
+                            storage.delete(CertificateDerivativeService.key(hash, size));
+                    }
+                } catch (IOException e) {
+                    log.warn("Gagal hapus blob {}: {}", hash, e.getMessage());
+                    return false;
+                }
+                blobRepo.delete(blob);
+                return true;
+            }).orElse(false);
+        });
+        return Boolean.TRUE.equals(deleted);
+    }
+
+    private boolean reclaimStray(String key) {
+        String hash = CertificateBlobService.hashOf(key);
+        Boolean deleted = transactionTemplate.execute(status -> {
+            if (hash != null) {
+                // object berbentuk blob tanpa baris DB → pastikan tidak ada upload yang baru mendaftarkannya
+                blobRepo.lockHash(hash);
+                if (blobRepo.existsById(hash))
+                    return false;
+            }
+            if (dryRun) {
+                log.info("Storage GC (dry-run): akan hapus {}", key);
+                return true;
+            }
+            try {
+                storage.delete(key);
+                return true;
+            } catch (IOException e) {
+                log.warn("Gagal hapus object {}: {}", key, e.getMessage());
+                return false;
+            }
+        });
+        return Boolean.TRUE.equals(deleted);
+    }
+}
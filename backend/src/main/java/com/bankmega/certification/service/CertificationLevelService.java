@@ -1,5 +1,7 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.cache.ReferenceDataCache;
+import com.bankmega.certification.cache.ReferenceDataCache.Region;
 import com.bankmega.certification.dto.CertificationLevelRequest;
 import com.bankmega.certification.dto.CertificationLevelResponse;
 import com.bankmega.certification.entity.CertificationLevel;
@@ -18,12 +20,13 @@ import java.util.List;
 public class CertificationLevelService {
 
     private final CertificationLevelRepository repo;
+    private final ReferenceDataCache referenceCache;
 
     public List<CertificationLevelResponse> getAll() {
-        return repo.findByDeletedAtIsNull().stream()
+        return referenceCache.getList(Region.CERTIFICATION_LEVEL, "all", () -> repo.findByDeletedAtIsNull().stream()
                 .sorted(Comparator.comparing(CertificationLevel::getLevel))
                 .map(this::toResponse)
-                .toList();
+                .toList());
     }
 
     public CertificationLevelResponse getById(Long id) {
@@ -45,7 +48,9 @@ public class CertificationLevelService {
                 .name(req.getName())
                 .build();
 
-        return toResponse(repo.save(lvl));
+        CertificationLevelResponse res = toResponse(repo.save(lvl));
+        evictCaches();
+        return res;
     }
 
     public CertificationLevelResponse update(Long id, CertificationLevelRequest req) {
@@ -62,7 +67,9 @@ public class CertificationLevelService {
         lvl.setLevel(req.getLevel());
         lvl.setName(req.getName());
 
-        return toResponse(repo.save(lvl));
+        CertificationLevelResponse res = toResponse(repo.save(lvl));
+        evictCaches();
+        return res;
     }
 
     public void softDelete(Long id) {
@@ -70,6 +77,12 @@ public class CertificationLevelService {
                 .orElseThrow(() -> new NotFoundException("Certification level not found"));
         lvl.setDeletedAt(Instant.now());
         repo.save(lvl);
+        evictCaches();
+    }
+
+    // nama/level ikut tampil di dropdown rule
+    private void evictCaches() {
+        referenceCache.evict(Region.CERTIFICATION_LEVEL, Region.CERTIFICATION_RULE);
     }
 
     private CertificationLevelResponse toResponse(CertificationLevel lvl) {
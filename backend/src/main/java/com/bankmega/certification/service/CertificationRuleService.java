@@ -1,11 +1,15 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.cache.ReferenceDataCache;
+import com.bankmega.certification.cache.ReferenceDataCache.Region;
 import com.bankmega.certification.dto.CertificationRuleRequest;
 import com.bankmega.certification.dto.CertificationRuleResponse;
 import com.bankmega.certification.entity.*;
+import com.bankmega.certification.event.EligibilityDirtyEvent;
 import com.bankmega.certification.repository.*;
 import com.bankmega.certification.specification.CertificationRuleSpecification;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -24,6 +28,8 @@ public class CertificationRuleService {
         private final SubFieldRepository subFieldRepo;
         private final RefreshmentTypeRepository refreshmentRepo;
         private final CertificationRuleHistoryService historyService;
+        private final ApplicationEventPublisher eventPublisher;
+        private final ReferenceDataCache referenceCache;
 
         // 🔹 Mapper entity -> DTO
         private CertificationRuleResponse toResponse(CertificationRule entity) {
@@ -85,48 +91,22 @@ public class CertificationRuleService {
                 return ruleRepo.findAll(spec, pageable).map(this::toResponse);
         }
 
-        // 🔹 All active rules
+        // 🔹 All active rules (katalog ter-cache, di-rebuild saat rule berubah)
         @Transactional(readOnly = true)
         public List<CertificationRuleResponse> getAllActive() {
-                return ruleRepo.findByIsActiveTrueAndDeletedAtIsNull()
-                                .stream()
-                                .map(this::toResponse)
-                                .toList();
+                return referenceCache.getList(Region.CERTIFICATION_RULE, "active",
+                                () -> ruleRepo.findActiveCatalogue().stream()
+                                                .map(this::toResponse)
+                                                .toList());
         }
 
-        // 🔹 All non-deleted rules
+        // 🔹 All non-deleted rules, urutan dari SQL (code, level, subfield code)
         @Transactional(readOnly = true)
         public List<CertificationRuleResponse> getAll() {
-                return ruleRepo.findByDeletedAtIsNull().stream()
-                                .sorted((a, b) -> {
-                                        String keyA = (a.getCertification().getCode() != null
-                                                        ? a.getCertification().getCode()
-                                                        : "") + " " +
-                                                        (a.getCertificationLevel() != null
-                                                                        && a.getCertificationLevel().getLevel() != null
-                                                                                        ? a.getCertificationLevel()
-                                                                                                        .getLevel()
-                                                                                        : "")
-                                                        + " " +
-                                                        (a.getSubField() != null && a.getSubField().getCode() != null
-                                                                        ? a.getSubField().getCode()
-                                                                        : "");
-                                        String keyB = (b.getCertification().getCode() != null
-                                                        ? b.getCertification().getCode()
-                                                        : "") + " " +
-                                                        (b.getCertificationLevel() != null
-                                                                        && b.getCertificationLevel().getLevel() != null
-                                                                                        ? b.getCertificationLevel()
-                                                                                                        .getLevel()
-                                                                                        : "")
-                                                        + " " +
-                                                        (b.getSubField() != null && b.getSubField().getCode() != null
-                                                                        ? b.getSubField().getCode()
-                                                                        : "");
-                                        return keyA.compareToIgnoreCase(keyB);
-                                })
-                                .map(this::toResponse)
-                                .toList();
+                return referenceCache.getList(Region.CERTIFICATION_RULE, "all",
+                                () -> ruleRepo.findCatalogue().stream()
+                                                .map(this::toResponse)
+                                                .toList());
         }
 
         // 🔹 Create
@@ -162,6 +142,7 @@ public class CertificationRuleService {
 
                 CertificationRule saved = ruleRepo.save(entity);
                 historyService.snapshot(saved, CertificationRuleHistory.ActionType.CREATED);
+                referenceCache.evict(Region.CERTIFICATION_RULE);
 
                 return toResponse(saved);
         }
@@ -200,6 +181,10 @@ public class CertificationRuleService {
 
                 CertificationRule saved = ruleRepo.save(existing);
                 historyService.snapshot(saved, CertificationRuleHistory.ActionType.UPDATED);
+                referenceCache.evict(Region.CERTIFICATION_RULE);
+
+                // masa berlaku / reminder ikut ke snapshot eligibility pemegang rule ini
+                eventPublisher.publishEvent(EligibilityDirtyEvent.ofRules(List.of(saved.getId())));
 
                 return toResponse(saved);
         }
@@ -214,6 +199,7 @@ public class CertificationRuleService {
 
                 CertificationRule saved = ruleRepo.save(rule);
                 historyService.snapshot(saved, CertificationRuleHistory.ActionType.UPDATED);
+                referenceCache.evict(Region.CERTIFICATION_RULE);
 
                 return toResponse(saved);
         }
@@ -229,5 +215,6 @@ public class CertificationRuleService {
 
                 CertificationRule saved = ruleRepo.save(existing);
                 historyService.snapshot(saved, CertificationRuleHistory.ActionType.DELETED);
+                referenceCache.evict(Region.CERTIFICATION_RULE);
         }
 }
@@ -1,5 +1,7 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.cache.ReferenceDataCache;
+import com.bankmega.certification.cache.ReferenceDataCache.Region;
 import com.bankmega.certification.dto.CertificationRequest;
 import com.bankmega.certification.dto.CertificationResponse;
 import com.bankmega.certification.entity.Certification;
@@ -18,12 +20,13 @@ import java.util.List;
 public class CertificationService {
 
     private final CertificationRepository repo;
+    private final ReferenceDataCache referenceCache;
 
     public List<CertificationResponse> getAll() {
-        return repo.findByDeletedAtIsNull().stream()
+        return referenceCache.getList(Region.CERTIFICATION, "all", () -> repo.findByDeletedAtIsNull().stream()
                 .sorted(Comparator.comparing(Certification::getCode, String.CASE_INSENSITIVE_ORDER))
                 .map(this::toResponse)
-                .toList();
+                .toList());
     }
 
     public CertificationResponse getById(Long id) {
@@ -45,7 +48,9 @@ public class CertificationService {
                 .name(req.getName())
                 .build();
 
-        return toResponse(repo.save(cert));
+        CertificationResponse res = toResponse(repo.save(cert));
+        evictCaches();
+        return res;
     }
 
     public CertificationResponse update(Long id, CertificationRequest req) {
@@ -62,7 +67,9 @@ public class CertificationService {
         cert.setCode(req.getCode());
         cert.setName(req.getName());
 
-        return toResponse(repo.save(cert));
+        CertificationResponse res = toResponse(repo.save(cert));
+        evictCaches();
+        return res;
     }
 
     public void softDelete(Long id) {
@@ -71,6 +78,12 @@ public class CertificationService {
 
         cert.setDeletedAt(Instant.now());
         repo.save(cert);
+        evictCaches();
+    }
+
+    // nama/kode sertifikasi ikut tampil di dropdown sub bidang & rule
+    private void evictCaches() {
+        referenceCache.evict(Region.CERTIFICATION, Region.SUB_FIELD, Region.CERTIFICATION_RULE);
     }
 
     private CertificationResponse toResponse(Certification c) {
@@ -1,5 +1,6 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.cache.MasterDataCache;
 import com.bankmega.certification.dto.DivisionRequest;
 import com.bankmega.certification.dto.DivisionResponse;
 import com.bankmega.certification.entity.Division;
@@ -21,6 +22,7 @@ public class DivisionService {
 
     private final DivisionRepository repo;
     private final EmployeeRepository employeeRepo;
+    private final MasterDataCache masterDataCache;
 
     public List<DivisionResponse> getAll() {
         return repo.findAllByOrderByIsActiveDescNameAsc().stream()
@@ -47,13 +49,12 @@ public class DivisionService {
 
     @Transactional
     public DivisionResponse createOrGet(DivisionRequest req) {
-        Division d = repo.findByNameIgnoreCase(req.getName())
-                .orElseGet(() -> repo.save(Division.builder()
-                        .name(req.getName())
-                        .isActive(true)
-                        .createdAt(Instant.now())
-                        .updatedAt(Instant.now())
-                        .build()));
+        Division d = masterDataCache.getOrCreateDivision(req.getName(), () -> Division.builder()
+                .name(req.getName())
+                .isActive(true)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
         return mapToResponse(d);
     }
 
@@ -71,6 +72,7 @@ public class DivisionService {
 
         d.setIsActive(!d.getIsActive());
         d.setUpdatedAt(Instant.now());
+        masterDataCache.evictDivision(d.getId());
         return mapToResponse(repo.save(d));
     }
 
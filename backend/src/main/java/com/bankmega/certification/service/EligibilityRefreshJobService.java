@@ -0,0 +1,269 @@
+package com.bankmega.certification.service;
+
+import com.bankmega.certification.dto.EligibilityRefreshJobResponse;
+import com.bankmega.certification.entity.EligibilityRefreshJob;
+import com.bankmega.certification.exception.ConflictException;
+import com.bankmega.certification.exception.NotFoundException;
+import com.bankmega.certification.repository.EligibilityRefreshJobRepository;
+import com.bankmega.certification.repository.EmployeeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EligibilityRefreshJobService {
+
+    private static final int CHUNK_SIZE = 500;
+    // job RUNNING tanpa heartbeat (updated_at) selama ini dianggap ditinggal instance yang mati
+    private static final Duration STALE_AFTER = Duration.ofMinutes(5);
+    private static final String INSTANCE_ID = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final EligibilityRefreshJobRepository jobRepo;
+    private final EmployeeRepository employeeRepo;
+    private final EmployeeEligibilityService eligibilityService;
+    private final TransactionTemplate transactionTemplate;
+
+    // satu worker: refresh massal tidak boleh jalan paralel dengan dirinya sendiri
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "eligibility-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Set<Long> runningJobIds = ConcurrentHashMap.newKeySet();
+
+    // ===================== START =====================
+    public synchronized EligibilityRefreshJobResponse start(String username) {
+        List<EligibilityRefreshJob> running = jobRepo.findByStatus(EligibilityRefreshJob.Status.RUNNING);
+        if (!running.isEmpty()) {
+            // sudah ada yang jalan → kembalikan job yang sama, jangan bikin dobel
+            return toResponse(running.get(0));
+        }
+
+        Instant now = Instant.now();
+        EligibilityRefreshJob job = jobRepo.save(EligibilityRefreshJob.builder()
+                .status(EligibilityRefreshJob.Status.RUNNING)
+                .totalEmployees((int) employeeRepo.count())
+                .processedEmployees(0)
+                .refreshedCount(0)
+                .lastEmployeeId(0L)
+                .triggeredBy(username)
+                .startedAt(now)
+                .runStartedAt(now)
+                .runStartProcessed(0)
+                .owner(INSTANCE_ID)
+                .updatedAt(now)
+                .build());
+
+        submit(job.getId());
+        return toResponse(job);
+    }
+
+    // ===================== RESUME =====================
+    public synchronized EligibilityRefreshJobResponse resume(Long jobId) {
+        EligibilityRefreshJob job = jobRepo.findById(jobId)
+                .orElseThrow(() -> new NotFoundException("Refresh job not found"));
+
+        if (job.getStatus() == EligibilityRefreshJob.Status.COMPLETED) {
+            throw new ConflictException("Refresh job sudah selesai");
+        }
+        if (runningJobIds.contains(jobId)) {
+            return toResponse(job);
+        }
+        if (jobRepo.findByStatus(EligibilityRefreshJob.Status.RUNNING).stream()
+                .anyMatch(j -> !j.getId().equals(jobId))) {
+            throw new ConflictException("Masih ada refresh job lain yang berjalan");
+        }
+        if (job.getStatus() == EligibilityRefreshJob.Status.RUNNING) {
+            // RUNNING tapi bukan di instance ini → hanya boleh diambil alih kalau heartbeat-nya basi
+            if (!claim(jobId)) {
+                throw new ConflictException("Refresh job sedang dikerjakan instance lain");
+            }
+            job = jobRepo.findById(jobId).orElseThrow();
+        }
+
+        markResumed(job);
+        submit(jobId);
+        return toResponse(job);
+    }
+
+    // Job yang masih RUNNING saat aplikasi start = terputus (restart/crash) → lanjut dari cursor terakhir.
+    // Dengan banyak instance, job diklaim dulu (UPDATE bersyarat): hanya satu instance yang menang,
+    // dan job yang heartbeat-nya masih segar dibiarkan ke pemiliknya.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void resumeInterruptedJobs() {
+        for (EligibilityRefreshJob running : jobRepo.findByStatus(EligibilityRefreshJob.Status.RUNNING)) {
+            if (!claim(running.getId())) {
+                log.info("⏭️ Refresh eligibility job {} masih dipegang {}, tidak dilanjutkan",
+                        running.getId(), running.getOwner());
+                continue;
+            }
+            EligibilityRefreshJob job = jobRepo.findById(running.getId()).orElseThrow();
+            log.info("▶️ Melanjutkan refresh eligibility job {} dari employee id > {}",
+                    job.getId(), job.getLastEmployeeId());
+            markResumed(job);
+            submit(job.getId());
+        }
+    }
+
+    // ===================== STATUS =====================
+    public EligibilityRefreshJobResponse getStatus(Long jobId) {
+        return jobRepo.findById(jobId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new NotFoundException("Refresh job not found"));
+    }
+
+    public EligibilityRefreshJobResponse getLatest() {
+        return jobRepo.findFirstByOrderByStartedAtDesc()
+                .map(this::toResponse)
+                .orElseThrow(() -> new NotFoundException("Belum ada refresh job"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ===================== WORKER =====================
+    private void submit(Long jobId) {
+        runningJobIds.add(jobId);
+        executor.submit(() -> {
+            try {
+                run(jobId);
+            } finally {
+                runningJobIds.remove(jobId);
+            }
+        });
+    }
+
+    private void run(Long jobId) {
+        try {
+            ChunkResult result = ChunkResult.MORE;
+            while (result == ChunkResult.MORE && !Thread.currentThread().isInterrupted()) {
+                // satu chunk = satu transaksi: eligibility + cursor + heartbeat commit bareng
+                result = transactionTemplate.execute(tx -> processChunk(jobId));
+            }
+            if (result == ChunkResult.LOST) {
+                log.warn("⚠️ Refresh eligibility job {} sudah diambil alih instance lain, worker berhenti", jobId);
+                return;
+            }
+            if (result == ChunkResult.MORE) {
+                // worker dihentikan (shutdown) → biarkan RUNNING, dilanjutkan saat start berikutnya
+                return;
+            }
+
+            transactionTemplate.executeWithoutResult(tx -> {
+                EligibilityRefreshJob job = jobRepo.findById(jobId).orElseThrow();
+                job.setStatus(EligibilityRefreshJob.Status.COMPLETED);
+                job.setFinishedAt(Instant.now());
+                job.setUpdatedAt(Instant.now());
+            });
+            log.info("✅ Refresh eligibility job {} selesai", jobId);
+        } catch (Exception e) {
+            log.error("❌ Refresh eligibility job {} gagal: {}", jobId, e.getMessage(), e);
+            transactionTemplate.executeWithoutResult(tx -> jobRepo.findById(jobId).ifPresent(job -> {
+                job.setStatus(EligibilityRefreshJob.Status.FAILED);
+                job.setErrorMessage(truncate(e.getMessage()));
+                job.setUpdatedAt(Instant.now());
+            }));
+        }
+    }
+
+    private ChunkResult processChunk(Long jobId) {
+        EligibilityRefreshJob job = jobRepo.findById(jobId).orElseThrow();
+        if (!INSTANCE_ID.equals(job.getOwner())) {
+            return ChunkResult.LOST;
+        }
+        List<Long> ids = employeeRepo.findIdsAfter(job.getLastEmployeeId(), PageRequest.of(0, CHUNK_SIZE));
+        if (ids.isEmpty()) {
+            return ChunkResult.DONE;
+        }
+
+        int refreshed = eligibilityService.refreshEligibilityChunk(ids);
+
+        job.setLastEmployeeId(ids.get(ids.size() - 1));
+        job.setProcessedEmployees(job.getProcessedEmployees() + ids.size());
+        job.setRefreshedCount(job.getRefreshedCount() + refreshed);
+        job.setUpdatedAt(Instant.now());
+        return ids.size() == CHUNK_SIZE ? ChunkResult.MORE : ChunkResult.DONE;
+    }
+
+    private boolean claim(Long jobId) {
+        Instant now = Instant.now();
+        Integer claimed = transactionTemplate.execute(
+                tx -> jobRepo.claimStale(jobId, INSTANCE_ID, now, now.minus(STALE_AFTER)));
+        return claimed != null && claimed == 1;
+    }
+
+    private void markResumed(EligibilityRefreshJob job) {
+        job.setStatus(EligibilityRefreshJob.Status.RUNNING);
+        job.setOwner(INSTANCE_ID);
+        job.setErrorMessage(null);
+        job.setRunStartedAt(Instant.now());
+        job.setRunStartProcessed(job.getProcessedEmployees());
+        job.setUpdatedAt(Instant.now());
+        jobRepo.save(job);
+    }
+
+    // ===================== MAPPER =====================
+    private EligibilityRefreshJobResponse toResponse(EligibilityRefreshJob job) {
+        int total = job.getTotalEmployees();
+        int processed = job.getProcessedEmployees();
+
+        return EligibilityRefreshJobResponse.builder()
+                .jobId(job.getId())
+                .status(job.getStatus().name())
+                .total(total)
+                .processed(processed)
+                .refreshedCount(job.getRefreshedCount())
+                .percent(total > 0 ? Math.min(100.0, processed * 100.0 / total) : 100.0)
+                .etaSeconds(estimateEta(job))
+                .triggeredBy(job.getTriggeredBy())
+                .errorMessage(job.getErrorMessage())
+                .startedAt(job.getStartedAt())
+                .updatedAt(job.getUpdatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+
+    // ETA dari laju run saat ini (processed sejak start/resume terakhir)
+    private Long estimateEta(EligibilityRefreshJob job) {
+        if (job.getStatus() != EligibilityRefreshJob.Status.RUNNING || job.getRunStartedAt() == null)
+            return null;
+
+        int doneThisRun = job.getProcessedEmployees() - job.getRunStartProcessed();
+        int remaining = Math.max(0, job.getTotalEmployees() - job.getProcessedEmployees());
+        if (doneThisRun <= 0)
+            return null;
+
+        long elapsedMs = Duration.between(job.getRunStartedAt(), Instant.now()).toMillis();
+        return Math.round((double) elapsedMs / doneThisRun * remaining / 1000.0);
+    }
+
+    private enum ChunkResult {
+        MORE,
+        DONE,
+        LOST
+    }
+
+    private String truncate(String message) {
+        if (message == null)
+            return null;
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
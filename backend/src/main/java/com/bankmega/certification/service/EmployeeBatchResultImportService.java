@@ -0,0 +1,373 @@
+package com.bankmega.certification.service;
+
+import com.bankmega.certification.dto.EmployeeBatchResultImportResponse;
+import com.bankmega.certification.dto.EmployeeBatchResultRequest;
+import com.bankmega.certification.entity.*;
+import com.bankmega.certification.exception.NotFoundException;
+import com.bankmega.certification.repository.BatchRepository;
+import com.bankmega.certification.repository.EmployeeBatchRepository;
+import com.bankmega.certification.repository.EmployeeCertificationRepository;
+import com.bankmega.certification.util.ExcelStreamReader;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Import hasil ujian peserta batch (Excel / JSON), key = NIP dalam 1 batch.
+ * Semua transisi status divalidasi in-memory dulu terhadap peserta batch yang di-load 1 query,
+ * baru baris yang valid diterapkan: update peserta + sertifikasi + history di-flush sebagai JDBC batch.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmployeeBatchResultImportService {
+
+    private final BatchRepository batchRepo;
+    private final EmployeeBatchRepository participantRepo;
+    private final EmployeeCertificationRepository certificationRepo;
+    private final EmployeeCertificationHistoryService historyService;
+
+    // ===================== DRYRUN =====================
+    @Transactional(readOnly = true)
+    public EmployeeBatchResultImportResponse dryRun(Long batchId, MultipartFile file) {
+        return process(batchId, file.getOriginalFilename(), readExcel(file), true);
+    }
+
+    @Transactional(readOnly = true)
+    public EmployeeBatchResultImportResponse dryRun(Long batchId, List<EmployeeBatchResultRequest> rows) {
+        return process(batchId, null, fromJson(rows), true);
+    }
+
+    // ===================== CONFIRM =====================
+    @Transactional
+    public EmployeeBatchResultImportResponse confirm(Long batchId, MultipartFile file) {
+        EmployeeBatchResultImportResponse res = process(batchId, file.getOriginalFilename(), readExcel(file), false);
+        res.setMessage("✅ Hasil ujian berhasil diimport");
+        return res;
+    }
+
+    @Transactional
+    public EmployeeBatchResultImportResponse confirm(Long batchId, List<EmployeeBatchResultRequest> rows) {
+        EmployeeBatchResultImportResponse res = process(batchId, null, fromJson(rows), false);
+        res.setMessage("✅ Hasil ujian berhasil diimport");
+        return res;
+    }
+
+    // ===================== MAIN IMPORT =====================
+    private EmployeeBatchResultImportResponse process(
+            Long batchId, String fileName, ParsedRows parsed, boolean dryRun) {
+        Batch batch = batchRepo.findByIdAndDeletedAtIsNull(batchId)
+                .orElseThrow(() -> new NotFoundException("Batch not found"));
+
+        // confirm: lock baris peserta supaya updateStatus satuan yang jalan bareng antre
+        List<EmployeeBatch> participants = dryRun
+                ? participantRepo.findActiveByBatchWithEmployee(batchId)
+                : participantRepo.lockActiveByBatchWithEmployee(batchId);
+        Map<String, EmployeeBatch> byNip = participants.stream()
+                .collect(Collectors.toMap(eb -> eb.getEmployee().getNip(), eb -> eb, (a, b) -> a));
+
+        ImportCounter c = new ImportCounter();
+        c.processed = parsed.processed;
+        List<String> errorDetails = new ArrayList<>(parsed.errorDetails);
+        c.errors = errorDetails.size();
+
+        // 🔹 Validasi semua baris in-memory
+        List<ResultChange> changes = new ArrayList<>();
+        Set<String> seenNips = new HashSet<>();
+        LocalDate today = LocalDate.now();
+        for (ResultRow row : parsed.rows) {
+            try {
+                ResultChange change = validate(row, byNip, seenNips, today);
+                if (change == null) {
+                    c.skipped++;
+                    continue;
+                }
+                changes.add(change);
+                switch (change.target) {
+                    case ATTENDED -> c.attended++;
+                    case PASSED -> c.passed++;
+                    default -> c.failed++;
+                }
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                c.errors++;
+                errorDetails.add("Row " + row.rowNum + ": " + e.getMessage());
+            }
+        }
+
+        // 🔹 Sertifikasi existing untuk semua yang lulus, 1 query
+        List<EmployeeBatch> passed = changes.stream()
+                .filter(ch -> ch.target == EmployeeBatch.Status.PASSED)
+                .map(ch -> ch.participant)
+                .toList();
+        Map<Long, EmployeeCertification> existingCerts = passed.isEmpty()
+                ? Map.of()
+                : certificationRepo.findByCertificationRuleIdAndEmployeeIdInAndDeletedAtIsNull(
+                                batch.getCertificationRule().getId(),
+                                passed.stream().map(eb -> eb.getEmployee().getId()).toList())
+                        .stream()
+                        .collect(Collectors.toMap(ec -> ec.getEmployee().getId(), ec -> ec, (a, b) -> a));
+        for (EmployeeBatch eb : passed) {
+            if (existingCerts.containsKey(eb.getEmployee().getId()))
+                c.certificationsUpdated++;
+            else
+                c.certificationsCreated++;
+        }
+
+        if (!dryRun && !changes.isEmpty()) {
+            apply(changes, existingCerts);
+        }
+
+        return EmployeeBatchResultImportResponse.builder()
+                .batchId(batchId)
+                .fileName(fileName)
+                .dryRun(dryRun)
+                .processed(c.processed)
+                .attended(c.attended)
+                .passed(c.passed)
+                .failed(c.failed)
+                .skipped(c.skipped)
+                .errors(c.errors)
+                .certificationsCreated(c.certificationsCreated)
+                .certificationsUpdated(c.certificationsUpdated)
+                .errorDetails(errorDetails)
+                .message(dryRun ? "Dry run completed" : "Import completed")
+                .build();
+    }
+
+    // ===================== VALIDATION =====================
+    /**
+     * Aturan sama dengan updateStatus satuan, ditambah REGISTERED → PASSED/FAILED langsung
+     * (hasil ujian berarti peserta hadir). Return null kalau status sudah sama (skip).
+     */
+    private ResultChange validate(ResultRow row, Map<String, EmployeeBatch> byNip, Set<String> seenNips,
+            LocalDate today) {
+        EmployeeBatchResultRequest req = row.request;
+        String nip = req.getNip() == null ? "" : req.getNip().trim();
+        if (nip.isEmpty())
+            throw new IllegalArgumentException("NIP wajib diisi");
+        if (!seenNips.add(nip))
+            throw new IllegalArgumentException("NIP " + nip + " muncul lebih dari sekali");
+
+        EmployeeBatch.Status target = parseTarget(req.getStatus());
+
+        EmployeeBatch eb = byNip.get(nip);
+        if (eb == null)
+            throw new IllegalArgumentException("NIP " + nip + " bukan peserta aktif batch ini");
+
+        LocalDate resultDate = req.getResultDate() != null ? req.getResultDate() : today;
+        if (resultDate.isAfter(today))
+            throw new IllegalArgumentException("Tanggal hasil tidak boleh di masa depan");
+
+        EmployeeBatch.Status current = eb.getStatus();
+        if (current == target)
+            return null;
+        if (current == EmployeeBatch.Status.CANCELED)
+            throw new IllegalStateException("Peserta sudah CANCELED");
+        if (target == EmployeeBatch.Status.ATTENDED && current != EmployeeBatch.Status.REGISTERED)
+            throw new IllegalStateException("Peserta sudah " + current + ", tidak bisa jadi ATTENDED");
+        if (current == EmployeeBatch.Status.PASSED || current == EmployeeBatch.Status.FAILED)
+            throw new IllegalStateException("Hasil ujian peserta sudah " + current);
+
+        return new ResultChange(eb, target, req.getScore(), resultDate, blankToNull(req.getNotes()));
+    }
+
+    private EmployeeBatch.Status parseTarget(String status) {
+        String s = status == null ? "" : status.trim().toUpperCase();
+        return switch (s) {
+            case "ATTENDED" -> EmployeeBatch.Status.ATTENDED;
+            case "PASSED" -> EmployeeBatch.Status.PASSED;
+            case "FAILED" -> EmployeeBatch.Status.FAILED;
+            default -> throw new IllegalArgumentException("Status harus ATTENDED / PASSED / FAILED, dapat: " + status);
+        };
+    }
+
+    // ===================== APPLY =====================
+    private void apply(List<ResultChange> changes, Map<Long, EmployeeCertification> existingCerts) {
+        Instant now = Instant.now();
+        List<EmployeeCertification> created = new ArrayList<>();
+        List<EmployeeCertification> updated = new ArrayList<>();
+
+        for (ResultChange ch : changes) {
+            EmployeeBatch eb = ch.participant;
+            if (eb.getAttendedAt() == null)
+                eb.setAttendedAt(ch.resultDate);
+            if (ch.target != EmployeeBatch.Status.ATTENDED)
+                eb.setResultDate(ch.resultDate);
+            eb.setStatus(ch.target);
+            if (ch.score != null)
+                eb.setScore(ch.score);
+            if (ch.notes != null)
+                eb.setNotes(ch.notes);
+            eb.setUpdatedAt(now);
+
+            if (ch.target == EmployeeBatch.Status.PASSED) {
+                EmployeeCertification existing = existingCerts.get(eb.getEmployee().getId());
+                EmployeeCertification ec = EmployeeBatchService.applyPassedResult(existing, eb, ch.resultDate);
+                (existing == null ? created : updated).add(ec);
+            }
+        }
+
+        // peserta sudah managed → UPDATE ikut di-batch saat flush
+        participantRepo.saveAll(changes.stream().map(ch -> ch.participant).toList());
+        certificationRepo.saveAll(created);
+        certificationRepo.saveAll(updated);
+        historyService.snapshotAll(created, EmployeeCertificationHistory.ActionType.CREATED);
+        historyService.snapshotAll(updated, EmployeeCertificationHistory.ActionType.UPDATED);
+        participantRepo.flush();
+    }
+
+    // ===================== PARSING =====================
+    private ParsedRows readExcel(MultipartFile file) {
+        ParsedRows parsed = new ParsedRows();
+        try {
+            ExcelStreamReader.read(file, (rowNum, row) -> {
+                if (rowNum == 0)
+                    return; // header
+                if (row.get(0).isBlank() && row.get(1).isBlank())
+                    return; // baris kosong
+                parsed.processed++;
+
+                try {
+                    parsed.rows.add(new ResultRow(rowNum + 1, EmployeeBatchResultRequest.builder()
+                            .nip(row.get(0))
+                            .status(row.get(1))
+                            .score(parseScore(row.get(2)))
+                            .resultDate(parseDate(row.get(3)))
+                            .notes(row.get(4))
+                            .build()));
+                } catch (IllegalArgumentException e) {
+                    parsed.errorDetails.add("Row " + (rowNum + 1) + ": " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid file format", e);
+        }
+        return parsed;
+    }
+
+    private ParsedRows fromJson(List<EmployeeBatchResultRequest> rows) {
+        ParsedRows parsed = new ParsedRows();
+        if (rows == null)
+            return parsed;
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i) == null)
+                continue;
+            parsed.processed++;
+            parsed.rows.add(new ResultRow(i + 1, rows.get(i)));
+        }
+        return parsed;
+    }
+
+    private Integer parseScore(String value) {
+        if (value == null || value.isBlank())
+            return null;
+        try {
+            return (int) Math.round(Double.parseDouble(value.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Score harus berupa angka, tapi dapat: " + value);
+        }
+    }
+
+    private LocalDate parseDate(String value) {
+        if (value == null || value.isBlank())
+            return null;
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Tanggal hasil harus yyyy-MM-dd, tapi dapat: " + value);
+        }
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // ===================== TEMPLATE =====================
+    public ResponseEntity<ByteArrayResource> downloadTemplate() {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("BatchResult");
+
+            // 🔹 Header
+            Row header = sheet.createRow(0);
+            String[] columns = { "NIP", "Status (ATTENDED/PASSED/FAILED)", "Score", "Result Date (yyyy-MM-dd)",
+                    "Notes" };
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font font = workbook.createFont();
+            font.setBold(true);
+            headerStyle.setFont(font);
+
+            for (int i = 0; i < columns.length; i++) {
+                Cell cell = header.createCell(i);
+                cell.setCellValue(columns[i]);
+                cell.setCellStyle(headerStyle);
+                sheet.autoSizeColumn(i);
+            }
+
+            // 🔹 Contoh baris
+            Row example = sheet.createRow(1);
+            example.createCell(0).setCellValue("1234567");
+            example.createCell(1).setCellValue("PASSED");
+            example.createCell(2).setCellValue("85");
+            example.createCell(3).setCellValue(LocalDate.now().toString());
+            example.createCell(4).setCellValue("");
+
+            byte[] bytes;
+            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                workbook.write(out);
+                bytes = out.toByteArray();
+            }
+
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=batch_result_template.xlsx")
+                    .contentType(MediaType.parseMediaType(
+                            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                    .contentLength(bytes.length)
+                    .body(new ByteArrayResource(bytes));
+        } catch (IOException e) {
+            throw new RuntimeException("Gagal membuat template Excel", e);
+        }
+    }
+
+    // ===================== HELPER CLASSES =====================
+    @AllArgsConstructor
+    private static class ResultRow {
+        final int rowNum;
+        final EmployeeBatchResultRequest request;
+    }
+
+    private static class ParsedRows {
+        final List<ResultRow> rows = new ArrayList<>();
+        final List<String> errorDetails = new ArrayList<>();
+        int processed;
+    }
+
+    @AllArgsConstructor
+    private static class ResultChange {
+        final EmployeeBatch participant;
+        final EmployeeBatch.Status target;
+        final Integer score;
+        final LocalDate resultDate;
+        final String notes;
+    }
+
+    // counter per proses import
+    private static class ImportCounter {
+        int processed, attended, passed, failed, skipped, errors;
+        int certificationsCreated, certificationsUpdated;
+    }
+}
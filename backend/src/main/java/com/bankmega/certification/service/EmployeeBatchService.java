@@ -1,11 +1,13 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.dto.EmployeeBatchBulkResponse;
 import com.bankmega.certification.dto.EmployeeBatchResponse;
 import com.bankmega.certification.dto.EmployeeEligibilityResponse;
 import com.bankmega.certification.entity.*;
 import com.bankmega.certification.exception.NotFoundException;
 import com.bankmega.certification.repository.*;
 import com.bankmega.certification.specification.EmployeeBatchSpecification;
+import com.bankmega.certification.specification.EmployeeEligibilitySpecification;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
@@ -16,6 +18,10 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -47,27 +53,6 @@ public class EmployeeBatchService {
                 .build();
     }
 
-    private EmployeeEligibilityResponse toEligibilityResponse(EmployeeEligibility e) {
-        Employee emp = e.getEmployee();
-        return EmployeeEligibilityResponse.builder()
-                .employeeId(emp != null ? emp.getId() : null)
-                .nip(emp != null ? emp.getNip() : null)
-                .employeeName(emp != null ? emp.getName() : null)
-                .jobPositionTitle(emp != null && emp.getJobPosition() != null ? emp.getJobPosition().getName() : null)
-                .certificationRuleId(e.getCertificationRule() != null ? e.getCertificationRule().getId() : null)
-                .certificationCode(
-                        e.getCertificationRule() != null && e.getCertificationRule().getCertification() != null
-                                ? e.getCertificationRule().getCertification().getCode()
-                                : null)
-                .certificationName(
-                        e.getCertificationRule() != null && e.getCertificationRule().getCertification() != null
-                                ? e.getCertificationRule().getCertification().getName()
-                                : null)
-                .status(e.getStatus() != null ? e.getStatus().name() : null)
-                .isActive(e.getIsActive())
-                .build();
-    }
-
     // ================== LIST ==================
     @Transactional(readOnly = true)
     public List<EmployeeBatchResponse> getByBatch(Long batchId) {
@@ -107,16 +92,16 @@ public class EmployeeBatchService {
         Employee emp = employeeRepo.findByIdAndDeletedAtIsNull(employeeId)
                 .orElseThrow(() -> new NotFoundException("Employee not found"));
 
-        long currentCount = repo.countByBatch_IdAndDeletedAtIsNull(batchId);
-        if (batch.getQuota() != null && currentCount >= batch.getQuota()) {
-            throw new IllegalStateException("Quota batch sudah penuh");
+        EmployeeBatch existing = repo.lockByBatchAndEmployee(batchId, employeeId).orElse(null);
+        if (existing != null && existing.getDeletedAt() == null) {
+            throw new IllegalStateException("Peserta sudah ada di batch ini");
         }
 
-        return repo.findByBatch_IdAndEmployee_Id(batchId, employeeId)
+        // ✅ Reservasi kursi atomik (cek kuota + increment di satu UPDATE); rollback ikut membatalkan
+        reserveSeats(batch, 1, "Quota batch sudah penuh");
+
+        return Optional.ofNullable(existing)
                 .map(eb -> {
-                    if (eb.getDeletedAt() == null) {
-                        throw new IllegalStateException("Peserta sudah ada di batch ini");
-                    }
                     eb.setDeletedAt(null);
                     eb.setStatus(EmployeeBatch.Status.REGISTERED);
                     eb.setRegistrationDate(LocalDate.now());
@@ -137,38 +122,76 @@ public class EmployeeBatchService {
     }
 
     // ================== ADD MULTIPLE PARTICIPANTS ==================
+    /**
+     * Enroll bulk set-based: validasi pegawai 1 query IN, keanggotaan lama (aktif / soft delete)
+     * 1 query, kuota 1 UPDATE, lalu reaktivasi + insert di-flush sebagai JDBC batch.
+     */
     @Transactional
-    public List<EmployeeBatchResponse> addParticipantsBulk(Long batchId, List<Long> employeeIds) {
+    public EmployeeBatchBulkResponse addParticipantsBulk(Long batchId, List<Long> employeeIds) {
         Batch batch = batchRepo.findByIdAndDeletedAtIsNull(batchId)
                 .orElseThrow(() -> new NotFoundException("Batch not found"));
 
-        long currentCount = repo.countByBatch_IdAndDeletedAtIsNull(batchId);
-        if (batch.getQuota() != null && currentCount + employeeIds.size() > batch.getQuota()) {
-            throw new IllegalStateException("Jumlah peserta melebihi quota batch");
+        List<Long> ids = employeeIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty())
+            return EmployeeBatchBulkResponse.builder().participants(List.of()).build();
+
+        Map<Long, Employee> employees = employeeRepo.findByIdInAndDeletedAtIsNull(ids).stream()
+                .collect(Collectors.toMap(Employee::getId, e -> e));
+        if (employees.size() != ids.size()) {
+            List<Long> missing = ids.stream().filter(id -> !employees.containsKey(id)).toList();
+            throw new NotFoundException("Employee not found: " + missing);
         }
 
-        List<EmployeeBatchResponse> responses = new ArrayList<>();
-        for (Long empId : employeeIds) {
-            Employee emp = employeeRepo.findByIdAndDeletedAtIsNull(empId)
-                    .orElseThrow(() -> new NotFoundException("Employee not found"));
+        Map<Long, EmployeeBatch> memberships = repo.lockByBatchAndEmployees(batchId, ids).stream()
+                .collect(Collectors.toMap(eb -> eb.getEmployee().getId(), eb -> eb));
+
+        Instant now = Instant.now();
+        LocalDate today = LocalDate.now();
+        List<EmployeeBatch> toSave = new ArrayList<>();
+        int inserted = 0;
+        int reactivated = 0;
+        int skipped = 0;
 
-            boolean exists = repo.existsByBatch_IdAndEmployee_IdAndDeletedAtIsNull(batchId, empId);
-            if (exists)
+        for (Long empId : ids) {
+            EmployeeBatch eb = memberships.get(empId);
+            if (eb != null && eb.getDeletedAt() == null) {
+                skipped++;
                 continue;
+            }
 
-            EmployeeBatch eb = EmployeeBatch.builder()
-                    .batch(batch)
-                    .employee(emp)
-                    .status(EmployeeBatch.Status.REGISTERED)
-                    .registrationDate(LocalDate.now())
-                    .createdAt(Instant.now())
-                    .updatedAt(Instant.now())
-                    .build();
+            if (eb != null) {
+                eb.setDeletedAt(null);
+                eb.setStatus(EmployeeBatch.Status.REGISTERED);
+                eb.setRegistrationDate(today);
+                eb.setUpdatedAt(now);
+                reactivated++;
+            } else {
+                eb = EmployeeBatch.builder()
+                        .batch(batch)
+                        .employee(employees.get(empId))
+                        .status(EmployeeBatch.Status.REGISTERED)
+                        .registrationDate(today)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build();
+                inserted++;
+            }
+            toSave.add(eb);
+        }
 
-            responses.add(toResponse(repo.save(eb)));
+        if (!toSave.isEmpty()) {
+            // ✅ Semua kursi direservasi sekaligus: cukup semua atau tidak sama sekali
+            reserveSeats(batch, toSave.size(), "Jumlah peserta melebihi quota batch");
+            repo.saveAll(toSave);
+            repo.flush();
         }
 
-        return responses;
+        return EmployeeBatchBulkResponse.builder()
+                .participants(toSave.stream().map(this::toResponse).toList())
+                .inserted(inserted)
+                .reactivated(reactivated)
+                .skipped(skipped)
+                .build();
     }
 
     // ================== UPDATE STATUS ==================
@@ -217,30 +240,41 @@ public class EmployeeBatchService {
 
     // ================== CREATE / UPDATE CERTIFICATION ==================
     private void createOrUpdateCertification(EmployeeBatch eb) {
-        Employee emp = eb.getEmployee();
-        CertificationRule rule = eb.getBatch().getCertificationRule();
-        Institution institution = eb.getBatch().getInstitution();
-
-        EmployeeCertification ec = certificationRepo
-                .findFirstByEmployeeIdAndCertificationRuleIdAndDeletedAtIsNull(emp.getId(), rule.getId())
+        EmployeeCertification existing = certificationRepo
+                .findFirstByEmployeeIdAndCertificationRuleIdAndDeletedAtIsNull(
+                        eb.getEmployee().getId(), eb.getBatch().getCertificationRule().getId())
                 .orElse(null);
 
-        boolean isNew = false;
+        EmployeeCertification saved = certificationRepo.save(applyPassedResult(existing, eb, LocalDate.now()));
+
+        // ✅ Catat histori CREATED / UPDATED
+        if (existing == null) {
+            historyService.snapshot(saved, EmployeeCertificationHistory.ActionType.CREATED);
+        } else {
+            historyService.snapshot(saved, EmployeeCertificationHistory.ActionType.UPDATED);
+        }
+    }
+
+    /**
+     * Sertifikasi hasil lulus batch: buat baru (PENDING) kalau belum ada, kalau sudah ada cukup
+     * perbarui tanggal + masa berlaku. Tidak menyimpan apa-apa; dipakai juga oleh import hasil ujian.
+     */
+    static EmployeeCertification applyPassedResult(EmployeeCertification ec, EmployeeBatch eb, LocalDate certDate) {
+        CertificationRule rule = eb.getBatch().getCertificationRule();
 
         if (ec == null) {
             ec = EmployeeCertification.builder()
-                    .employee(emp)
+                    .employee(eb.getEmployee())
                     .certificationRule(rule)
-                    .institution(institution)
-                    .certDate(LocalDate.now())
+                    .institution(eb.getBatch().getInstitution())
+                    .certDate(certDate)
                     .processType(EmployeeCertification.ProcessType.SERTIFIKASI)
                     .status(EmployeeCertification.Status.PENDING)
                     .createdAt(Instant.now())
                     .updatedAt(Instant.now())
                     .build();
-            isNew = true;
         } else {
-            ec.setCertDate(LocalDate.now());
+            ec.setCertDate(certDate);
             ec.setUpdatedAt(Instant.now());
             ec.setStatus(
                     (ec.getCertNumber() == null || ec.getCertNumber().isBlank())
@@ -257,45 +291,48 @@ public class EmployeeBatchService {
                 ec.setReminderDate(ec.getValidUntil().minusMonths(rule.getReminderMonths()));
             }
         }
-
-        EmployeeCertification saved = certificationRepo.save(ec);
-
-        // ✅ Catat histori CREATED / UPDATED
-        if (isNew) {
-            historyService.snapshot(saved, EmployeeCertificationHistory.ActionType.CREATED);
-        } else {
-            historyService.snapshot(saved, EmployeeCertificationHistory.ActionType.UPDATED);
-        }
+        return ec;
     }
 
     // ================== SOFT DELETE ==================
     @Transactional
     public void removeParticipant(Long id) {
-        EmployeeBatch eb = repo.findByIdAndDeletedAtIsNull(id)
+        EmployeeBatch eb = repo.lockActiveById(id)
                 .orElseThrow(() -> new NotFoundException("EmployeeBatch not found"));
         eb.setDeletedAt(Instant.now());
         eb.setUpdatedAt(Instant.now());
         repo.save(eb);
+        batchRepo.releaseSeats(eb.getBatch().getId(), 1);
+    }
+
+    // ================== QUOTA ==================
+    /**
+     * Kuota dijaga oleh UPDATE bersyarat di baris batch (lihat BatchRepository.reserveSeats):
+     * PIC yang enroll bersamaan ke batch yang sama antre di row lock, bukan check-then-insert.
+     */
+    private void reserveSeats(Batch batch, int seats, String fullMessage) {
+        if (batchRepo.reserveSeats(batch.getId(), seats) == 0) {
+            throw new IllegalStateException(fullMessage);
+        }
     }
 
     // ================== ELIGIBLE EMPLOYEES ==================
+    // Satu SELECT projection + NOT EXISTS ke employee_batches, tanpa load entity / filter di memori
     @Transactional(readOnly = true)
-    public List<EmployeeEligibilityResponse> getEligibleEmployeesForBatch(Long batchId) {
+    public Page<EmployeeEligibilityResponse> getEligibleEmployeesForBatch(Long batchId, String search, Pageable pageable) {
         Batch batch = batchRepo.findByIdAndDeletedAtIsNull(batchId)
                 .orElseThrow(() -> new NotFoundException("Batch not found"));
-        Long certRuleId = batch.getCertificationRule().getId();
 
-        List<EmployeeEligibility> eligibles = eligibilityRepo
-                .findByCertificationRule_IdAndIsActiveTrueAndDeletedAtIsNull(certRuleId);
+        Specification<EmployeeEligibility> spec = EmployeeEligibilitySpecification.notDeleted()
+                .and(EmployeeEligibilitySpecification.activeForRule(batch.getCertificationRule().getId()))
+                .and(EmployeeEligibilitySpecification.notEnrolledInBatch(batchId))
+                .and(EmployeeEligibilitySpecification.byEmployeeKeyword(search));
 
-        List<Long> existingIds = repo.findByBatch_IdAndDeletedAtIsNull(batchId)
-                .stream()
-                .map(eb -> eb.getEmployee().getId())
-                .toList();
+        return eligibilityRepo.findRowsByUrgency(spec, pageable).map(EmployeeEligibilityService::toResponse);
+    }
 
-        return eligibles.stream()
-                .filter(e -> e.getEmployee() != null && !existingIds.contains(e.getEmployee().getId()))
-                .map(this::toEligibilityResponse)
-                .toList();
+    @Transactional(readOnly = true)
+    public List<EmployeeEligibilityResponse> getEligibleEmployeesForBatch(Long batchId) {
+        return getEligibleEmployeesForBatch(batchId, null, Pageable.unpaged()).getContent();
     }
-}
\ No newline at end of file
+}
@@ -11,7 +11,12 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,11 +27,48 @@ public class EmployeeCertificationHistoryService {
         // ================== SNAPSHOT ==================
         public void snapshot(EmployeeCertification ec, EmployeeCertificationHistory.ActionType actionType) {
                 // Kalau UPDATE, cek dulu apakah ada perubahan nyata
-                if (actionType == EmployeeCertificationHistory.ActionType.UPDATED && !hasChanged(ec)) {
-                        return; // ❌ skip, ga perlu catet history
+                if (actionType == EmployeeCertificationHistory.ActionType.UPDATED) {
+                        EmployeeCertificationHistory last = historyRepo
+                                        .findTopByEmployeeCertificationIdOrderByActionAtDesc(ec.getId())
+                                        .orElse(null);
+                        if (!hasChanged(ec, last)) {
+                                return; // ❌ skip, ga perlu catet history
+                        }
                 }
 
-                EmployeeCertificationHistory history = EmployeeCertificationHistory.builder()
+                historyRepo.save(toHistory(ec, actionType));
+        }
+
+        // ================== SNAPSHOT (BULK) ==================
+        // History terakhir semua sertifikat diambil 1 query, insert di-flush sebagai JDBC batch
+        public void snapshotAll(Collection<EmployeeCertification> certs,
+                        EmployeeCertificationHistory.ActionType actionType) {
+                if (certs.isEmpty())
+                        return;
+
+                Map<Long, EmployeeCertificationHistory> lastByCert = Map.of();
+                if (actionType == EmployeeCertificationHistory.ActionType.UPDATED) {
+                        lastByCert = historyRepo.findLatestByCertificationIds(
+                                        certs.stream().map(EmployeeCertification::getId).toList())
+                                        .stream()
+                                        .collect(Collectors.toMap(h -> h.getEmployeeCertification().getId(),
+                                                        h -> h, (a, b) -> a));
+                }
+
+                List<EmployeeCertificationHistory> histories = new ArrayList<>();
+                for (EmployeeCertification ec : certs) {
+                        if (actionType == EmployeeCertificationHistory.ActionType.UPDATED
+                                        && !hasChanged(ec, lastByCert.get(ec.getId()))) {
+                                continue;
+                        }
+                        histories.add(toHistory(ec, actionType));
+                }
+                historyRepo.saveAll(histories);
+        }
+
+        private EmployeeCertificationHistory toHistory(EmployeeCertification ec,
+                        EmployeeCertificationHistory.ActionType actionType) {
+                return EmployeeCertificationHistory.builder()
                                 .employeeCertification(ec)
 
                                 // 🔹 Snapshot employee
@@ -76,16 +118,10 @@ public class EmployeeCertificationHistoryService {
                                 .actionType(actionType)
 
                                 .build();
-
-                historyRepo.save(history);
         }
 
         // ================== CHANGE DETECTION ==================
-        private boolean hasChanged(EmployeeCertification ec) {
-                EmployeeCertificationHistory last = historyRepo
-                                .findTopByEmployeeCertificationIdOrderByActionAtDesc(ec.getId())
-                                .orElse(null);
-
+        private boolean hasChanged(EmployeeCertification ec, EmployeeCertificationHistory last) {
                 if (last == null)
                         return true; // belum ada history → pasti berubah
 
@@ -12,6 +12,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
@@ -27,6 +31,7 @@ public class EmployeeCertificationService {
     private final InstitutionRepository institutionRepo;
     private final FileStorageService fileStorageService;
     private final EmployeeCertificationHistoryService historyService;
+    private final NotificationOutboxService outboxService;
 
     // ================== Mapper ==================
     private EmployeeCertificationResponse toResponse(EmployeeCertification ec) {
@@ -154,6 +159,7 @@ public class EmployeeCertificationService {
 
         // ✅ Simpan ke DB dulu
         EmployeeCertification saved = repo.save(ec);
+        outboxService.onCertificationStatusChange(null, saved);
 
         // ✅ Tambahkan histori CREATED (⬅️ ini barunya)
         historyService.snapshot(saved, EmployeeCertificationHistory.ActionType.CREATED);
@@ -189,10 +195,12 @@ public class EmployeeCertificationService {
         ec.setProcessType(req.getProcessType());
         ec.setUpdatedAt(Instant.now());
 
+        EmployeeCertification.Status before = ec.getStatus();
         updateValidity(ec);
         updateStatus(ec);
 
         EmployeeCertification saved = repo.save(ec);
+        outboxService.onCertificationStatusChange(before, saved);
         historyService.snapshot(saved, EmployeeCertificationHistory.ActionType.UPDATED);
 
         return toResponse(saved);
@@ -223,6 +231,7 @@ public class EmployeeCertificationService {
             ec.setFileUrl(null);
             ec.setFileName(null);
             ec.setFileType(null);
+            ec.setFileHash(null);
         } else {
             if (isReupload) {
                 fileStorageService.deleteCertificate(ec.getId());
@@ -233,10 +242,18 @@ public class EmployeeCertificationService {
             ec.setFileType(file.getContentType());
         }
 
+        return afterFileChange(ec, actionType);
+    }
+
+    // Status + outbox + history setelah file berubah
+    private EmployeeCertification afterFileChange(EmployeeCertification ec,
+            EmployeeCertificationHistory.ActionType actionType) {
         ec.setUpdatedAt(Instant.now());
+        EmployeeCertification.Status before = ec.getStatus();
         updateStatus(ec);
 
         EmployeeCertification saved = repo.save(ec);
+        outboxService.onCertificationStatusChange(before, saved);
         historyService.snapshot(saved, actionType);
 
         return saved;
@@ -262,6 +279,26 @@ public class EmployeeCertificationService {
                 EmployeeCertificationHistory.ActionType.REUPLOAD_CERTIFICATE));
     }
 
+    // ================== Upload dari Arsip (bulk ZIP) ==================
+    // Sudah ada file → dicatat sebagai reupload; file lama tetap dirujuk history
+    @Transactional
+    public EmployeeCertificationResponse attachArchivedFile(Long id, Path content,
+            String originalName, String contentType) {
+        EmployeeCertification ec = repo.findByIdAndDeletedAtIsNull(id)
+                .orElseThrow(() -> new RuntimeException("Certification not found"));
+
+        EmployeeCertificationHistory.ActionType actionType = ec.getFileUrl() != null
+                ? EmployeeCertificationHistory.ActionType.REUPLOAD_CERTIFICATE
+                : EmployeeCertificationHistory.ActionType.UPLOAD_CERTIFICATE;
+
+        try (InputStream in = Files.newInputStream(content)) {
+            fileStorageService.save(ec.getId(), in, originalName, contentType);
+        } catch (IOException e) {
+            throw new RuntimeException("Gagal menyimpan file", e);
+        }
+        return toResponse(afterFileChange(ec, actionType));
+    }
+
     // ================== Delete Certificate ==================
     @Transactional
     public void deleteCertificate(Long id) {
@@ -4,6 +4,7 @@ import com.bankmega.certification.dto.EmployeeEligibilityExceptionImportLogRespo
 import com.bankmega.certification.dto.EmployeeEligibilityExceptionImportResponse;
 import com.bankmega.certification.entity.*;
 import com.bankmega.certification.repository.*;
+import com.bankmega.certification.util.ExcelStreamReader;
 import lombok.RequiredArgsConstructor;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -71,23 +72,21 @@ public class EmployeeEligibilityExceptionImportService {
     // ===================== CORE PROCESS =====================
     private EmployeeEligibilityExceptionImportResponse process(MultipartFile file, boolean dryRun, User user) throws Exception {
         List<String> errorDetails = new ArrayList<>();
-        int processed = 0, created = 0, reactivated = 0, updated = 0, deactivated = 0, skipped = 0, errors = 0;
+        ImportCounter c = new ImportCounter();
 
-        try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-
-            for (Row row : sheet) {
-                if (row.getRowNum() == 0) continue; // skip header
-                processed++;
+        try {
+            ExcelStreamReader.read(file, (rowNum, row) -> {
+                if (rowNum == 0) return; // skip header
+                c.processed++;
 
                 try {
-                    String nip = getCellValue(row.getCell(0));
-                    String name = getCellValue(row.getCell(1));
-                    String certCode = getCellValue(row.getCell(2));
-                    String levelStr = getCellValue(row.getCell(3));
-                    String subCode = getCellValue(row.getCell(4));
-                    String notes = getCellValue(row.getCell(5));
-                    String activeFlag = getCellValue(row.getCell(6));
+                    String nip = row.get(0);
+                    String name = row.get(1);
+                    String certCode = row.get(2);
+                    String levelStr = row.get(3);
+                    String subCode = row.get(4);
+                    String notes = row.get(5);
+                    String activeFlag = row.get(6);
 
                     if (nip.isBlank() || certCode.isBlank()) {
                         throw new IllegalArgumentException("NIP & CertificationCode wajib diisi");
@@ -125,7 +124,7 @@ public class EmployeeEligibilityExceptionImportService {
 
                     if (anyException == null) {
                         // ✅ CREATE baru
-                        created++;
+                        c.created++;
                         if (!dryRun) {
                             EmployeeEligibilityException ex = EmployeeEligibilityException.builder()
                                     .employee(emp)
@@ -139,7 +138,7 @@ public class EmployeeEligibilityExceptionImportService {
 
                     } else if (anyException.getDeletedAt() != null) {
                         // ✅ REACTIVATE
-                        reactivated++;
+                        c.reactivated++;
                         if (!dryRun) {
                             anyException.setDeletedAt(null);
                             anyException.setIsActive(shouldActive);
@@ -150,7 +149,7 @@ public class EmployeeEligibilityExceptionImportService {
 
                     } else if (!shouldActive && Boolean.TRUE.equals(anyException.getIsActive())) {
                         // ✅ DEACTIVATE
-                        deactivated++;
+                        c.deactivated++;
                         if (!dryRun) {
                             anyException.setIsActive(false);
                             anyException.setDeletedAt(Instant.now());
@@ -160,7 +159,7 @@ public class EmployeeEligibilityExceptionImportService {
                     } else if (!Objects.equals(anyException.getNotes(), notes) ||
                                !Objects.equals(anyException.getIsActive(), shouldActive)) {
                         // ✅ UPDATE
-                        updated++;
+                        c.updated++;
                         if (!dryRun) {
                             anyException.setNotes(notes);
                             anyException.setIsActive(shouldActive);
@@ -170,18 +169,21 @@ public class EmployeeEligibilityExceptionImportService {
 
                     } else {
                         // ✅ SKIP
-                        skipped++;
+                        c.skipped++;
                     }
 
                 } catch (Exception e) {
-                    errors++;
-                    errorDetails.add("Row " + (row.getRowNum() + 1) + ": ERROR → " + e.getMessage());
+                    c.errors++;
+                    errorDetails.add("Row " + (rowNum + 1) + ": ERROR → " + e.getMessage());
                 }
-            }
+            });
         } catch (IOException e) {
             throw new IllegalArgumentException("Invalid file format", e);
         }
 
+        int processed = c.processed, created = c.created, reactivated = c.reactivated, updated = c.updated,
+                deactivated = c.deactivated, skipped = c.skipped, errors = c.errors;
+
         // 🔹 Save log
         if (!dryRun) {
             if (user == null || user.getId() == null) {
@@ -242,10 +244,9 @@ public class EmployeeEligibilityExceptionImportService {
         return filtered.get(0);
     }
 
-    private String getCellValue(Cell cell) {
-        if (cell == null) return "";
-        DataFormatter formatter = new DataFormatter();
-        return formatter.formatCellValue(cell).trim();
+    // counter per proses import (dipakai di dalam callback baris)
+    private static class ImportCounter {
+        int processed, created, reactivated, updated, deactivated, skipped, errors;
     }
 
     // ===================== TEMPLATE =====================
@@ -4,11 +4,13 @@ import com.bankmega.certification.dto.EmployeeEligibilityExceptionResponse;
 import com.bankmega.certification.entity.CertificationRule;
 import com.bankmega.certification.entity.Employee;
 import com.bankmega.certification.entity.EmployeeEligibilityException;
+import com.bankmega.certification.event.EligibilityDirtyEvent;
 import com.bankmega.certification.repository.CertificationRuleRepository;
 import com.bankmega.certification.repository.EmployeeEligibilityExceptionRepository;
 import com.bankmega.certification.repository.EmployeeRepository;
 import com.bankmega.certification.specification.EmployeeEligibilityExceptionSpecification;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
@@ -24,6 +26,7 @@ public class EmployeeEligibilityExceptionService {
     private final EmployeeEligibilityExceptionRepository exceptionRepo;
     private final EmployeeRepository employeeRepo;
     private final CertificationRuleRepository ruleRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     // 🔹 Mapper Entity → DTO
     private EmployeeEligibilityExceptionResponse toResponse(EmployeeEligibilityException e) {
@@ -127,7 +130,9 @@ public class EmployeeEligibilityExceptionService {
             softDeleted.setIsActive(true);
             softDeleted.setNotes(notes);
             softDeleted.setUpdatedAt(Instant.now());
-            return toResponse(exceptionRepo.save(softDeleted));
+            EmployeeEligibilityException restored = exceptionRepo.save(softDeleted);
+            publishDirty(employeeId);
+            return toResponse(restored);
         }
 
         // Kalau belum pernah ada → create baru
@@ -140,7 +145,9 @@ public class EmployeeEligibilityExceptionService {
                 .updatedAt(Instant.now())
                 .build();
 
-        return toResponse(exceptionRepo.save(exception));
+        EmployeeEligibilityException saved = exceptionRepo.save(exception);
+        publishDirty(employeeId);
+        return toResponse(saved);
     }
 
     // 🔹 Update notes
@@ -160,7 +167,9 @@ public class EmployeeEligibilityExceptionService {
                 .orElseThrow(() -> new RuntimeException("Exception not found"));
         exception.setIsActive(!Boolean.TRUE.equals(exception.getIsActive()));
         exception.setUpdatedAt(Instant.now());
-        return toResponse(exceptionRepo.save(exception));
+        EmployeeEligibilityException saved = exceptionRepo.save(exception);
+        publishDirty(saved.getEmployee().getId());
+        return toResponse(saved);
     }
 
     // 🔹 Soft delete
@@ -172,5 +181,11 @@ public class EmployeeEligibilityExceptionService {
         exception.setDeletedAt(Instant.now());
         exception.setUpdatedAt(Instant.now());
         exceptionRepo.save(exception);
+        publishDirty(exception.getEmployee().getId());
+    }
+
+    // 🔹 Eligibility pegawai ini dihitung ulang setelah commit
+    private void publishDirty(Long employeeId) {
+        eventPublisher.publishEvent(EligibilityDirtyEvent.ofEmployees(List.of(employeeId)));
     }
 }
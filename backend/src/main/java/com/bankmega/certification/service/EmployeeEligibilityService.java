@@ -1,6 +1,8 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.dto.EligibilityReconcileResponse;
 import com.bankmega.certification.dto.EmployeeEligibilityResponse;
+import com.bankmega.certification.dto.EmployeeEligibilityRow;
 import com.bankmega.certification.entity.*;
 import com.bankmega.certification.repository.*;
 import com.bankmega.certification.specification.EmployeeEligibilitySpecification;
@@ -8,6 +10,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
@@ -25,6 +28,9 @@ public class EmployeeEligibilityService {
     private final JobCertificationMappingRepository jobCertMappingRepo;
     private final EmployeeEligibilityExceptionRepository exceptionRepo;
     private final EmployeeRepository employeeRepo;
+    private final NotificationOutboxService outboxService;
+
+    private static final int RECOMPUTE_CHUNK_SIZE = 1000;
 
     // ===================== MAPPER =====================
     private EmployeeEligibilityResponse toResponse(EmployeeEligibility e) {
@@ -45,8 +51,7 @@ public class EmployeeEligibilityService {
             masaBerlaku = rule.getValidityMonths();
         }
         if (e.getDueDate() != null) {
-            long days = ChronoUnit.DAYS.between(LocalDate.now(), e.getDueDate());
-            sisaWaktu = days >= 0 ? days + " hari" : "Kadaluarsa";
+            sisaWaktu = sisaWaktu(e.getDueDate());
         }
 
         return EmployeeEligibilityResponse.builder()
@@ -83,6 +88,48 @@ public class EmployeeEligibilityService {
                 .build();
     }
 
+    // Mapper dari projection (paging & list per pegawai), tanpa sentuh entity/lazy relation
+    // dipakai juga oleh EmployeeBatchService (kandidat peserta batch)
+    static EmployeeEligibilityResponse toResponse(EmployeeEligibilityRow r) {
+        LocalDate wajibPunya = r.getEffectiveDate() != null && r.getRuleWajibSetelahMasuk() != null
+                ? r.getEffectiveDate().plusMonths(r.getRuleWajibSetelahMasuk())
+                : null;
+
+        return EmployeeEligibilityResponse.builder()
+                .id(r.getId())
+                .employeeId(r.getEmployeeId())
+                .employeeName(r.getEmployeeName())
+                .nip(r.getNip())
+                .jobPositionTitle(r.getJobPositionTitle())
+                .effectiveDate(r.getEffectiveDate())
+
+                .certificationRuleId(r.getCertificationRuleId())
+                .certificationCode(r.getCertificationCode())
+                .certificationName(r.getCertificationName())
+                .certificationLevelName(r.getCertificationLevelName())
+                .certificationLevelLevel(r.getCertificationLevelLevel())
+                .subFieldName(r.getSubFieldName())
+                .subFieldCode(r.getSubFieldCode())
+
+                .status(r.getStatus() != null ? r.getStatus().name() : null)
+                .dueDate(r.getDueDate())
+                .source(r.getSource() != null ? r.getSource().name() : null)
+                .isActive(r.getIsActive())
+
+                .wajibPunyaSertifikasiSampai(wajibPunya)
+                .masaBerlakuBulan(r.getRuleValidityMonths())
+                .sisaWaktu(r.getDueDate() != null ? sisaWaktu(r.getDueDate()) : null)
+
+                .createdAt(r.getCreatedAt())
+                .updatedAt(r.getUpdatedAt())
+                .build();
+    }
+
+    private static String sisaWaktu(LocalDate dueDate) {
+        long days = ChronoUnit.DAYS.between(LocalDate.now(), dueDate);
+        return days >= 0 ? days + " hari" : "Kadaluarsa";
+    }
+
     // ===================== PAGING + FILTER =====================
     @Transactional(readOnly = true)
     public Page<EmployeeEligibilityResponse> getPagedFiltered(
@@ -119,17 +166,18 @@ public class EmployeeEligibilityService {
                             Sort.Order.asc("certificationRule.subField.code")));
         }
 
-        Page<EmployeeEligibility> pageResult = eligibilityRepo.findAll(spec, pageable);
-
-        return pageResult.map(this::toResponse);
+        return eligibilityRepo.findRows(spec, pageable).map(EmployeeEligibilityService::toResponse);
     }
 
     // ===================== GET ALL BY EMPLOYEE =====================
     @Transactional(readOnly = true)
     public List<EmployeeEligibilityResponse> getByEmployeeId(Long employeeId) {
-        List<EmployeeEligibility> eligList = eligibilityRepo.findByEmployee_IdAndDeletedAtIsNull(employeeId);
+        Specification<EmployeeEligibility> spec = EmployeeEligibilitySpecification.notDeleted()
+                .and(EmployeeEligibilitySpecification.byEmployeeIds(List.of(employeeId)));
 
-        return eligList.stream().map(this::toResponse).toList();
+        return eligibilityRepo.findRows(spec, Sort.unsorted()).stream()
+                .map(EmployeeEligibilityService::toResponse)
+                .toList();
     }
 
     // ===================== GET DETAIL =====================
@@ -162,63 +210,124 @@ public class EmployeeEligibilityService {
         eligibilityRepo.save(eligibility);
     }
 
-    // ===================== REFRESH MASS =====================
+    // ===================== REKONSILIASI SET-BASED (SQL) =====================
+    // Versi bank-wide dari refreshEligibility: tiga statement bulk di DB, tanpa load entity.
     @Transactional
-    public int refreshEligibility() {
-        List<Employee> employees = employeeRepo.findAll();
+    public EligibilityReconcileResponse reconcileEligibility() {
+        long start = System.currentTimeMillis();
+
+        int upserted = eligibilityRepo.upsertRequiredEligibilities();
+        int deactivated = eligibilityRepo.deactivateUnrequiredEligibilities();
+        LocalDate today = LocalDate.now();
+        outboxService.enqueueReconcileTransitions(today);
+        int statusUpdated = eligibilityRepo.syncStatusWithCertifications(today);
+
+        return EligibilityReconcileResponse.builder()
+                .upserted(upserted)
+                .deactivated(deactivated)
+                .statusUpdated(statusUpdated)
+                .durationMs(System.currentTimeMillis() - start)
+                .message("Eligibility reconciled for all employees")
+                .build();
+    }
 
-        Map<Long, List<CertificationRule>> jobRuleMap = jobCertMappingRepo.findAll().stream()
-                .filter(j -> j.getDeletedAt() == null)
-                .collect(Collectors.groupingBy(
-                        j -> j.getJobPosition().getId(),
-                        Collectors.mapping(JobCertificationMapping::getCertificationRule, Collectors.toList())));
+    // ===================== REFRESH PER EMPLOYEE =====================
+    @Transactional
+    public void refreshEligibilityForEmployee(Long employeeId) {
+        Employee employee = employeeRepo.findById(employeeId)
+                .orElseThrow(() -> new RuntimeException("Employee not found"));
 
-        Map<Long, List<CertificationRule>> exceptionRuleMap = exceptionRepo.findAll().stream()
-                .filter(e -> e.getDeletedAt() == null && Boolean.TRUE.equals(e.getIsActive()))
-                .collect(Collectors.groupingBy(
-                        e -> e.getEmployee().getId(),
-                        Collectors.mapping(EmployeeEligibilityException::getCertificationRule, Collectors.toList())));
+        refreshForEmployees(List.of(employee));
+    }
+
+    // ===================== REFRESH PER CHUNK =====================
+    // Dipakai EligibilityRefreshJobService; ikut transaksi chunk milik job.
+    @Transactional
+    public int refreshEligibilityChunk(List<Long> employeeIds) {
+        return refreshForEmployees(employeeRepo.findAllById(employeeIds));
+    }
 
-        List<EmployeeEligibility> allToSave = new ArrayList<>();
+    // ===================== RECOMPUTE DIRTY SET =====================
+    // Dipanggil EligibilityRecomputeListener setelah mutasi commit. Hanya pegawai yang terdampak
+    // (langsung, lewat jabatan, atau pemegang rule) yang dihitung ulang.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int recomputeDirty(Set<Long> employeeIds, Set<Long> jobIds, Set<Long> ruleIds) {
+        Set<Long> affected = new HashSet<>(employeeIds);
+        if (!jobIds.isEmpty())
+            affected.addAll(employeeRepo.findIdsByJobPositionIdIn(jobIds));
+        if (!ruleIds.isEmpty())
+            affected.addAll(eligibilityRepo.findEmployeeIdsByRuleIdIn(ruleIds));
+
+        if (affected.isEmpty())
+            return 0;
+
+        List<Long> ids = new ArrayList<>(affected);
+        int total = 0;
+        for (int from = 0; from < ids.size(); from += RECOMPUTE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + RECOMPUTE_CHUNK_SIZE, ids.size()));
+            total += refreshForEmployees(employeeRepo.findAllById(chunk));
+        }
+        return total;
+    }
+
+    // ===================== PRIVATE HELPERS =====================
+    private int refreshForEmployees(List<Employee> employees) {
+        if (employees.isEmpty())
+            return 0;
+
+        Set<Long> employeeIds = employees.stream().map(Employee::getId).collect(Collectors.toSet());
+        Set<Long> jobIds = employees.stream()
+                .map(Employee::getJobPosition)
+                .filter(Objects::nonNull)
+                .map(JobPosition::getId)
+                .collect(Collectors.toSet());
+
+        Map<Long, List<CertificationRule>> jobRuleMap = jobIds.isEmpty()
+                ? Map.of()
+                : toJobRuleMap(jobCertMappingRepo.findByJobPosition_IdInAndDeletedAtIsNull(jobIds));
+        Map<Long, List<CertificationRule>> exceptionRuleMap = toExceptionRuleMap(
+                exceptionRepo.findByEmployee_IdInAndDeletedAtIsNull(employeeIds));
+        Map<Long, List<EmployeeEligibility>> existingMap = groupByEmployee(
+                eligibilityRepo.findByEmployeeIdInAndDeletedAtIsNull(employeeIds));
+
+        List<EmployeeEligibility> toSave = new ArrayList<>();
         for (Employee employee : employees) {
-            allToSave.addAll(syncEligibilitiesForEmployee(employee, jobRuleMap, exceptionRuleMap));
+            toSave.addAll(syncEligibilitiesForEmployee(employee, jobRuleMap, exceptionRuleMap,
+                    existingMap.getOrDefault(employee.getId(), List.of())));
         }
+        eligibilityRepo.saveAll(toSave);
 
-        eligibilityRepo.saveAll(allToSave);
-        syncWithCertifications(employees);
+        syncWithCertifications(
+                new ArrayList<>(employeeIds),
+                eligibilityRepo.findByEmployeeIdInAndDeletedAtIsNull(employeeIds));
 
-        return allToSave.size();
+        return toSave.size();
     }
 
-    // ===================== REFRESH PER EMPLOYEE =====================
-    @Transactional
-    public void refreshEligibilityForEmployee(Long employeeId) {
-        Employee employee = employeeRepo.findById(employeeId)
-                .orElseThrow(() -> new RuntimeException("Employee not found"));
-
-        Map<Long, List<CertificationRule>> jobRuleMap = jobCertMappingRepo.findAll().stream()
-                .filter(j -> j.getDeletedAt() == null)
+    private Map<Long, List<CertificationRule>> toJobRuleMap(List<JobCertificationMapping> mappings) {
+        return mappings.stream()
                 .collect(Collectors.groupingBy(
                         j -> j.getJobPosition().getId(),
                         Collectors.mapping(JobCertificationMapping::getCertificationRule, Collectors.toList())));
+    }
 
-        Map<Long, List<CertificationRule>> exceptionRuleMap = exceptionRepo.findAll().stream()
-                .filter(e -> e.getDeletedAt() == null && Boolean.TRUE.equals(e.getIsActive()))
+    private Map<Long, List<CertificationRule>> toExceptionRuleMap(List<EmployeeEligibilityException> exceptions) {
+        return exceptions.stream()
+                .filter(e -> Boolean.TRUE.equals(e.getIsActive()))
                 .collect(Collectors.groupingBy(
                         e -> e.getEmployee().getId(),
                         Collectors.mapping(EmployeeEligibilityException::getCertificationRule, Collectors.toList())));
+    }
 
-        List<EmployeeEligibility> toSave = syncEligibilitiesForEmployee(employee, jobRuleMap, exceptionRuleMap);
-        eligibilityRepo.saveAll(toSave);
-
-        syncWithCertifications(List.of(employee));
+    private Map<Long, List<EmployeeEligibility>> groupByEmployee(List<EmployeeEligibility> eligibilities) {
+        return eligibilities.stream().collect(Collectors.groupingBy(ee -> ee.getEmployee().getId()));
     }
 
-    // ===================== PRIVATE HELPERS =====================
     private List<EmployeeEligibility> syncEligibilitiesForEmployee(
             Employee employee,
             Map<Long, List<CertificationRule>> jobRuleMap,
-            Map<Long, List<CertificationRule>> exceptionRuleMap) {
+            Map<Long, List<CertificationRule>> exceptionRuleMap,
+            List<EmployeeEligibility> existingElig) {
         Long jobId = employee.getJobPosition() != null ? employee.getJobPosition().getId() : null;
         List<CertificationRule> mappingRules = jobId != null
                 ? jobRuleMap.getOrDefault(jobId, List.of())
@@ -226,7 +335,6 @@ public class EmployeeEligibilityService {
 
         List<CertificationRule> manualRules = exceptionRuleMap.getOrDefault(employee.getId(), List.of());
 
-        List<EmployeeEligibility> existingElig = eligibilityRepo.findByEmployeeAndDeletedAtIsNull(employee);
         List<EmployeeEligibility> toSave = new ArrayList<>();
 
         // deactivate outdated
@@ -278,8 +386,8 @@ public class EmployeeEligibilityService {
         return toSave;
     }
 
-    private void syncWithCertifications(List<Employee> employees) {
-        List<Long> employeeIds = employees.stream().map(Employee::getId).toList();
+    // Hanya eligibility milik employeeIds yang disentuh; sebelumnya seluruh tabel ikut di-reset.
+    private void syncWithCertifications(List<Long> employeeIds, List<EmployeeEligibility> eligibilities) {
         List<EmployeeCertification> certs = employeeCertificationRepo.findByEmployeeIdInAndDeletedAtIsNull(employeeIds);
 
         Map<String, EmployeeCertification> latestCerts = certs.stream()
@@ -288,10 +396,10 @@ public class EmployeeEligibilityService {
                         c -> c,
                         (c1, c2) -> c1.getCertDate().isAfter(c2.getCertDate()) ? c1 : c2));
 
-        List<EmployeeEligibility> allEligibilities = eligibilityRepo.findByDeletedAtIsNull();
-        for (EmployeeEligibility ee : allEligibilities) {
+        for (EmployeeEligibility ee : eligibilities) {
             String key = ee.getEmployee().getId() + "-" + ee.getCertificationRule().getId();
             EmployeeCertification cert = latestCerts.get(key);
+            EmployeeEligibility.EligibilityStatus before = ee.getStatus();
 
             if (cert != null) {
                 ee.setDueDate(cert.getValidUntil());
@@ -308,8 +416,9 @@ public class EmployeeEligibilityService {
                 ee.setStatus(EmployeeEligibility.EligibilityStatus.NOT_YET_CERTIFIED);
                 ee.setDueDate(null);
             }
+            outboxService.onEligibilityStatusChange(before, ee);
         }
 
-        eligibilityRepo.saveAll(allEligibilities);
+        eligibilityRepo.saveAll(eligibilities);
     }
 }
@@ -45,7 +45,26 @@ public class EmployeeHistoryService {
                         return;
                 }
 
-                EmployeeHistory history = EmployeeHistory.builder()
+                EmployeeHistory history = build(emp, oldJob, newJob, effective, actionType);
+
+                batchBuffer.add(history);
+
+                if (batchBuffer.size() >= BATCH_SIZE) {
+                        flushBatch();
+                }
+        }
+
+        // ===================== SNAPSHOT BULK (IMPORT) =====================
+        /**
+         * Buat baris history tanpa menyimpan & tanpa cek ke history terakhir.
+         * Dipakai importer yang sudah men-diff perubahan terhadap index in-memory.
+         */
+        public EmployeeHistory build(Employee emp,
+                        JobPosition oldJob,
+                        JobPosition newJob,
+                        LocalDate effective,
+                        EmployeeHistory.EmployeeActionType actionType) {
+                return EmployeeHistory.builder()
                                 .employee(emp)
                                 .employeeNip(emp.getNip())
                                 .employeeName(emp.getName())
@@ -63,12 +82,14 @@ public class EmployeeHistoryService {
                                 .actionType(actionType)
                                 .actionAt(Instant.now())
                                 .build();
+        }
 
-                batchBuffer.add(history);
-
-                if (batchBuffer.size() >= BATCH_SIZE) {
-                        flushBatch();
-                }
+        // Semua history import disimpan sekaligus → insert ikut JDBC batch saat flush
+        @Transactional
+        public void saveAll(Collection<EmployeeHistory> histories) {
+                if (histories.isEmpty())
+                        return;
+                historyRepo.saveAll(histories);
         }
 
         @Transactional
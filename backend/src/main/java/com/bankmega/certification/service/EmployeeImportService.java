@@ -1,9 +1,15 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.cache.MasterDataCache;
 import com.bankmega.certification.dto.*;
 import com.bankmega.certification.entity.*;
+import com.bankmega.certification.event.EligibilityDirtyEvent;
 import com.bankmega.certification.repository.*;
+import com.bankmega.certification.util.ExcelStreamReader;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.http.*;
@@ -15,28 +21,21 @@ import java.io.ByteArrayOutputStream;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class EmployeeImportService {
 
-    private final RegionalRepository regionalRepo;
-    private final DivisionRepository divisionRepo;
-    private final UnitRepository unitRepo;
-    private final JobPositionRepository jobRepo;
+    private final MasterDataCache masterDataCache;
     private final EmployeeRepository empRepo;
     private final EmployeeImportLogRepository logRepo;
     private final EmployeeHistoryService historyService;
     private final UserService userService;
-    private final UserRepository userRepo;
     private final RoleRepository roleRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
-    // cache master data
-    private final Map<String, Regional> regionalCache = new HashMap<>();
-    private final Map<String, Division> divisionCache = new HashMap<>();
-    private final Map<String, Unit> unitCache = new HashMap<>();
-    private final Map<String, JobPosition> jobCache = new HashMap<>();
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    private static final int SAVE_CHUNK_SIZE = 500;
 
     // ===================== DRYRUN =====================
     public EmployeeImportResponse dryRun(MultipartFile file, User user) throws Exception {
@@ -53,17 +52,19 @@ public class EmployeeImportService {
 
     // ===================== MAIN IMPORT =====================
     private EmployeeImportResponse process(MultipartFile file, boolean dryRun, User user) throws Exception {
-        int processed = 0, created = 0, updated = 0, mutated = 0, resigned = 0, errors = 0;
+        ImportCounter c = new ImportCounter();
         List<String> errorDetails = new ArrayList<>();
+        Set<Long> dirtyEmployeeIds = new HashSet<>();
 
-        Set<String> existingNips = empRepo.findAllBy().stream()
-                .map(EmployeeRepository.NipOnly::getNip)
-                .collect(Collectors.toSet());
+        // index semua pegawai sekali di awal → diff per baris murni in-memory
+        Map<String, EmployeeSnapshot> index = new HashMap<>();
+        for (EmployeeRepository.ImportIndexRow r : empRepo.findAllImportIndexRows()) {
+            index.put(r.getNip(), new EmployeeSnapshot(r.getName(), r.getEmail(), r.getGender(),
+                    r.getRegionalId(), r.getDivisionId(), r.getUnitId(), r.getJobPositionId()));
+        }
+        Set<String> existingNips = new HashSet<>(index.keySet());
         Set<String> importedNips = new HashSet<>();
-
-        Set<String> existingUsernames = userRepo.findAll().stream()
-                .map(User::getUsername)
-                .collect(Collectors.toSet());
+        List<RowChange> changes = new ArrayList<>();
 
         Role pegawaiRole = roleRepo.findByNameIgnoreCase("Pegawai")
                 .orElseGet(() -> roleRepo.save(Role.builder()
@@ -72,132 +73,94 @@ public class EmployeeImportService {
                         .updatedAt(Instant.now())
                         .build()));
 
-        try (Workbook wb = new XSSFWorkbook(file.getInputStream())) {
-            Sheet sheet = wb.getSheetAt(0);
-            DataFormatter fmt = new DataFormatter();
-
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null)
-                    continue;
-                processed++;
-
-                try {
-                    String regionalName = fmt.formatCellValue(row.getCell(0)).trim();
-                    String divisionName = fmt.formatCellValue(row.getCell(1)).trim();
-                    String unitName = fmt.formatCellValue(row.getCell(2)).trim();
-                    String jobName = fmt.formatCellValue(row.getCell(3)).trim();
-                    String nip = fmt.formatCellValue(row.getCell(4)).trim();
-                    String name = fmt.formatCellValue(row.getCell(5)).trim();
-                    String gender = fmt.formatCellValue(row.getCell(6)).trim();
-                    String email = fmt.formatCellValue(row.getCell(7)).trim();
-                    String effStr = fmt.formatCellValue(row.getCell(8)).trim();
-
-                    if (nip.isEmpty())
-                        continue;
-                    importedNips.add(nip);
-
-                    LocalDate effDate = parseDateSafe(row.getCell(8), effStr);
-                    Regional regional = resolveRegional(regionalName);
-                    Division division = resolveDivision(divisionName);
-                    Unit unit = resolveUnit(unitName);
-                    JobPosition job = resolveJob(jobName);
-
-                    Employee emp = empRepo.findByNip(nip).orElse(null);
-
-                    if (emp == null) {
-                        created++;
-                        if (!dryRun) {
-                            emp = Employee.builder()
-                                    .nip(nip)
-                                    .name(name)
-                                    .gender(gender)
-                                    .email(email)
-                                    .regional(regional)
-                                    .division(division)
-                                    .unit(unit)
-                                    .jobPosition(job)
-                                    .status("ACTIVE")
-                                    .effectiveDate(effDate)
-                                    .createdAt(Instant.now())
-                                    .updatedAt(Instant.now())
-                                    .build();
-
-                            empRepo.save(emp);
-                            historyService.snapshot(emp, EmployeeHistory.EmployeeActionType.CREATED, effDate);
-
-                            // auto-create user
-                            if (!existingUsernames.contains(nip)) {
-                                userService.create(UserRequest.builder()
-                                        .username(nip)
-                                        .email(email)
-                                        .password(nip)
-                                        .roleId(pegawaiRole.getId())
-                                        .employeeId(emp.getId())
-                                        .isActive(true)
-                                        .build());
-                                existingUsernames.add(nip);
-                            }
-                        }
-                    } else {
-                        boolean mutasi = emp.getJobPosition() != null &&
-                                !Objects.equals(emp.getJobPosition().getId(), job.getId());
-                        boolean changed = hasChanged(emp, name, email, gender, regional, division, unit, job);
-
-                        if (mutasi) {
-                            mutated++;
-                            if (!dryRun) {
-                                JobPosition oldJob = emp.getJobPosition();
-                                emp.setJobPosition(job);
-                                emp.setUpdatedAt(Instant.now());
-                                if (effDate != null)
-                                    emp.setEffectiveDate(effDate);
-                                empRepo.save(emp);
-                                historyService.snapshot(emp, oldJob, job, effDate,
-                                        EmployeeHistory.EmployeeActionType.MUTASI);
-                            }
-                        } else if (changed) {
-                            updated++;
-                            if (!dryRun) {
-                                emp.setName(name);
-                                emp.setEmail(email);
-                                emp.setGender(gender);
-                                emp.setRegional(regional);
-                                emp.setDivision(division);
-                                emp.setUnit(unit);
-                                emp.setUpdatedAt(Instant.now());
-                                if (effDate != null)
-                                    emp.setEffectiveDate(effDate);
-                                empRepo.save(emp);
-                                historyService.snapshot(emp, EmployeeHistory.EmployeeActionType.UPDATED, effDate);
-                            }
-                        }
+        ExcelStreamReader.read(file, (i, row) -> {
+            if (i == 0)
+                return; // header
+            c.processed++;
+
+            try {
+                String regionalName = row.get(0);
+                String divisionName = row.get(1);
+                String unitName = row.get(2);
+                String jobName = row.get(3);
+                String nip = row.get(4);
+                String name = row.get(5);
+                String gender = row.get(6);
+                String email = row.get(7);
+                String effStr = row.get(8);
+
+                if (nip.isEmpty())
+                    return;
+                importedNips.add(nip);
+
+                LocalDate effDate = parseDateSafe(effStr);
+                Regional regional = resolveRegional(regionalName);
+                Division division = resolveDivision(divisionName);
+                Unit unit = resolveUnit(unitName);
+                JobPosition job = resolveJob(jobName);
+
+                RowChange change = new RowChange(null, nip, name, email, gender,
+                        regional, division, unit, job, effDate);
+                EmployeeSnapshot snap = index.get(nip);
+
+                if (snap == null) {
+                    c.created++;
+                    changes.add(change.as(RowAction.CREATED));
+                    index.put(nip, new EmployeeSnapshot(name, email, gender,
+                            idOf(regional), idOf(division), idOf(unit), idOf(job)));
+                } else {
+                    boolean mutasi = snap.getJobId() != null &&
+                            !Objects.equals(snap.getJobId(), job.getId());
+                    boolean changed = hasChanged(snap, name, email, gender, regional, division, unit, job);
+
+                    if (mutasi) {
+                        c.mutated++;
+                        changes.add(change.as(RowAction.MUTASI));
+                        index.put(nip, new EmployeeSnapshot(snap.getName(), snap.getEmail(), snap.getGender(),
+                                snap.getRegionalId(), snap.getDivisionId(), snap.getUnitId(), job.getId()));
+                    } else if (changed) {
+                        c.updated++;
+                        changes.add(change.as(RowAction.UPDATED));
+                        index.put(nip, new EmployeeSnapshot(name, email, gender,
+                                idOf(regional), idOf(division), idOf(unit), snap.getJobId()));
                     }
-
-                } catch (Exception e) {
-                    errors++;
-                    errorDetails.add("Row " + i + ": " + e.getMessage());
                 }
+
+            } catch (Exception e) {
+                c.errors++;
+                errorDetails.add("Row " + i + ": " + e.getMessage());
             }
+        });
+
+        if (!dryRun && !changes.isEmpty()) {
+            // gagal provisioning user ikut dihitung sebagai error, sejalan dengan errorDetails
+            c.errors += applyChanges(changes, existingNips, pegawaiRole, dirtyEmployeeIds, errorDetails);
         }
 
+        int processed = c.processed, created = c.created, updated = c.updated, mutated = c.mutated,
+                errors = c.errors, resigned;
+
         // Handle resign
         Set<String> resignedNips = new HashSet<>(existingNips);
         resignedNips.removeAll(importedNips);
         resigned = resignedNips.size();
         if (!dryRun && !resignedNips.isEmpty()) {
             List<Employee> resignedEmployees = empRepo.findByNipInAndDeletedAtIsNull(resignedNips);
+            List<EmployeeHistory> resignHistories = new ArrayList<>(resignedEmployees.size());
             resignedEmployees.forEach(emp -> {
                 emp.setStatus("RESIGN");
                 emp.setUpdatedAt(Instant.now());
-                historyService.snapshot(emp, EmployeeHistory.EmployeeActionType.RESIGN, LocalDate.now());
+                resignHistories.add(historyService.build(emp, emp.getJobPosition(), emp.getJobPosition(),
+                        LocalDate.now(), EmployeeHistory.EmployeeActionType.RESIGN));
             });
             empRepo.saveAll(resignedEmployees);
+            historyService.saveAll(resignHistories);
         }
 
         if (!dryRun) {
-            historyService.flushBatch();
             saveImportLog(user, file, processed, created, updated, mutated, resigned, errors);
+            // pegawai baru & mutasi → eligibility dihitung ulang setelah import commit
+            eventPublisher.publishEvent(EligibilityDirtyEvent.ofEmployees(dirtyEmployeeIds));
         }
 
         return EmployeeImportResponse.builder()
@@ -290,68 +253,212 @@ public class EmployeeImportService {
                 .build());
     }
 
-    private boolean hasChanged(Employee emp, String name, String email, String gender,
+    // ===================== APPLY (BATCH WRITE) =====================
+    // return jumlah user yang gagal di-provision
+    private int applyChanges(List<RowChange> changes, Set<String> existingNips, Role pegawaiRole,
+            Set<Long> dirtyEmployeeIds, List<String> errorDetails) {
+        // load entity pegawai lama yang berubah, per chunk NIP
+        Map<String, Employee> byNip = new HashMap<>();
+        List<String> nipsToLoad = changes.stream()
+                .map(RowChange::getNip)
+                .filter(existingNips::contains)
+                .distinct()
+                .toList();
+        for (int from = 0; from < nipsToLoad.size(); from += LOAD_CHUNK_SIZE) {
+            Set<String> chunk = new HashSet<>(
+                    nipsToLoad.subList(from, Math.min(from + LOAD_CHUNK_SIZE, nipsToLoad.size())));
+            empRepo.findByNipIn(chunk).forEach(e -> byNip.put(e.getNip(), e));
+        }
+
+        List<Employee> createdEmployees = new ArrayList<>();
+        List<HistoryEntry> histories = new ArrayList<>();
+        Set<Employee> touched = new LinkedHashSet<>();
+
+        for (RowChange ch : changes) {
+            switch (ch.getAction()) {
+                case CREATED -> {
+                    Employee emp = Employee.builder()
+                            .nip(ch.getNip())
+                            .name(ch.getName())
+                            .gender(ch.getGender())
+                            .email(ch.getEmail())
+                            .regional(ch.getRegional())
+                            .division(ch.getDivision())
+                            .unit(ch.getUnit())
+                            .jobPosition(ch.getJob())
+                            .status("ACTIVE")
+                            .effectiveDate(ch.getEffDate())
+                            .createdAt(Instant.now())
+                            .updatedAt(Instant.now())
+                            .build();
+                    byNip.put(ch.getNip(), emp);
+                    createdEmployees.add(emp);
+                    touched.add(emp);
+                    histories.add(new HistoryEntry(emp, ch.getJob(), ch.getJob(), ch.getEffDate(),
+                            EmployeeHistory.EmployeeActionType.CREATED));
+                }
+                case MUTASI -> {
+                    Employee emp = byNip.get(ch.getNip());
+                    JobPosition oldJob = emp.getJobPosition();
+                    emp.setJobPosition(ch.getJob());
+                    emp.setUpdatedAt(Instant.now());
+                    if (ch.getEffDate() != null)
+                        emp.setEffectiveDate(ch.getEffDate());
+                    touched.add(emp);
+                    histories.add(new HistoryEntry(emp, oldJob, ch.getJob(), ch.getEffDate(),
+                            EmployeeHistory.EmployeeActionType.MUTASI));
+                }
+                case UPDATED -> {
+                    Employee emp = byNip.get(ch.getNip());
+                    emp.setName(ch.getName());
+                    emp.setEmail(ch.getEmail());
+                    emp.setGender(ch.getGender());
+                    emp.setRegional(ch.getRegional());
+                    emp.setDivision(ch.getDivision());
+                    emp.setUnit(ch.getUnit());
+                    emp.setUpdatedAt(Instant.now());
+                    if (ch.getEffDate() != null)
+                        emp.setEffectiveDate(ch.getEffDate());
+                    touched.add(emp);
+                    histories.add(new HistoryEntry(emp, emp.getJobPosition(), emp.getJobPosition(),
+                            ch.getEffDate(), EmployeeHistory.EmployeeActionType.UPDATED));
+                }
+            }
+        }
+
+        // simpan pegawai dulu (butuh id untuk history & user), flush per chunk
+        List<Employee> toSave = new ArrayList<>(touched);
+        for (int from = 0; from < toSave.size(); from += SAVE_CHUNK_SIZE) {
+            empRepo.saveAll(toSave.subList(from, Math.min(from + SAVE_CHUNK_SIZE, toSave.size())));
+            empRepo.flush();
+        }
+
+        // baris sudah di-diff terhadap index → history langsung ditulis, tanpa cek history terakhir per pegawai
+        List<EmployeeHistory> historyRows = new ArrayList<>(histories.size());
+        for (HistoryEntry h : histories) {
+            historyRows.add(historyService.build(h.getEmployee(), h.getOldJob(), h.getNewJob(), h.getEffDate(),
+                    h.getType()));
+            if (h.getType() != EmployeeHistory.EmployeeActionType.UPDATED)
+                dirtyEmployeeIds.add(h.getEmployee().getId());
+        }
+        historyService.saveAll(historyRows);
+
+        // auto-create user (bulk: hash paralel + JDBC batch)
+        UserProvisionResult provision = userService.bulkProvision(createdEmployees.stream()
+                .map(emp -> UserProvisionRequest.builder()
+                        .employeeId(emp.getId())
+                        .username(emp.getNip())
+                        .email(emp.getEmail())
+                        .build())
+                .toList(), pegawaiRole.getId());
+        provision.getFailures().forEach(f -> errorDetails.add("User " + f.getUsername() + ": " + f.getReason()));
+        return provision.getFailures().size();
+    }
+
+    private boolean hasChanged(EmployeeSnapshot snap, String name, String email, String gender,
             Regional reg, Division div, Unit unit, JobPosition job) {
-        return !Objects.equals(emp.getName(), name)
-                || !Objects.equals(emp.getEmail(), email)
-                || !Objects.equals(emp.getGender(), gender)
-                || !sameEntity(emp.getRegional(), reg)
-                || !sameEntity(emp.getDivision(), div)
-                || !sameEntity(emp.getUnit(), unit)
-                || !sameEntity(emp.getJobPosition(), job);
+        return !Objects.equals(snap.getName(), name)
+                || !Objects.equals(snap.getEmail(), email)
+                || !Objects.equals(snap.getGender(), gender)
+                || !Objects.equals(snap.getRegionalId(), idOf(reg))
+                || !Objects.equals(snap.getDivisionId(), idOf(div))
+                || !Objects.equals(snap.getUnitId(), idOf(unit))
+                || !Objects.equals(snap.getJobId(), idOf(job));
     }
 
-    private boolean sameEntity(Object a, Object b) {
-        if (a == b)
-            return true;
-        if (a == null || b == null)
-            return false;
-        try {
-            var idA = a.getClass().getMethod("getId").invoke(a);
-            var idB = b.getClass().getMethod("getId").invoke(b);
-            return Objects.equals(idA, idB);
-        } catch (Exception e) {
-            return a.equals(b);
-        }
+    private Long idOf(Regional r) {
+        return r != null ? r.getId() : null;
+    }
+
+    private Long idOf(Division d) {
+        return d != null ? d.getId() : null;
+    }
+
+    private Long idOf(Unit u) {
+        return u != null ? u.getId() : null;
     }
 
-    private LocalDate parseDateSafe(Cell cell, String val) {
+    private Long idOf(JobPosition j) {
+        return j != null ? j.getId() : null;
+    }
+
+    // Sel tanggal sudah berupa yyyy-MM-dd dari ExcelStreamReader; angka polos dianggap serial date Excel
+    private LocalDate parseDateSafe(String val) {
         try {
-            if (cell != null && cell.getCellType() == CellType.NUMERIC)
-                return cell.getLocalDateTimeCellValue().toLocalDate();
             if (val.matches("\\d{4}-\\d{2}-\\d{2}"))
                 return LocalDate.parse(val, DateTimeFormatter.ISO_LOCAL_DATE);
+            if (val.matches("\\d+(\\.\\d+)?"))
+                return DateUtil.getLocalDateTime(Double.parseDouble(val)).toLocalDate();
         } catch (Exception ignored) {
         }
         return null;
     }
 
+    // counter per proses import (dipakai di dalam callback baris)
+    private static class ImportCounter {
+        int processed, created, updated, mutated, errors;
+    }
+
+    // 🔹 Snapshot ringkas pegawai (id master data saja) untuk diffing
+    @Getter
+    @AllArgsConstructor
+    private static class EmployeeSnapshot {
+        private final String name;
+        private final String email;
+        private final String gender;
+        private final Long regionalId;
+        private final Long divisionId;
+        private final Long unitId;
+        private final Long jobId;
+    }
+
+    private enum RowAction {
+        CREATED, MUTASI, UPDATED
+    }
+
+    // 🔹 Perubahan hasil diff satu baris, di-apply belakangan secara batch
+    @Getter
+    @AllArgsConstructor
+    private static class RowChange {
+        private final RowAction action;
+        private final String nip;
+        private final String name;
+        private final String email;
+        private final String gender;
+        private final Regional regional;
+        private final Division division;
+        private final Unit unit;
+        private final JobPosition job;
+        private final LocalDate effDate;
+
+        RowChange as(RowAction action) {
+            return new RowChange(action, nip, name, email, gender, regional, division, unit, job, effDate);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class HistoryEntry {
+        private final Employee employee;
+        private final JobPosition oldJob;
+        private final JobPosition newJob;
+        private final LocalDate effDate;
+        private final EmployeeHistory.EmployeeActionType type;
+    }
+
     private Regional resolveRegional(String name) {
-        return resolveCached(name, regionalCache, regionalRepo::findByNameIgnoreCase,
-                n -> regionalRepo.save(Regional.builder().name(n).build()));
+        return masterDataCache.getOrCreateRegional(name, () -> Regional.builder().name(name).build());
     }
 
     private Division resolveDivision(String name) {
-        return resolveCached(name, divisionCache, divisionRepo::findByNameIgnoreCase,
-                n -> divisionRepo.save(Division.builder().name(n).build()));
+        return masterDataCache.getOrCreateDivision(name, () -> Division.builder().name(name).build());
     }
 
     private Unit resolveUnit(String name) {
-        return resolveCached(name, unitCache, unitRepo::findByNameIgnoreCase,
-                n -> unitRepo.save(Unit.builder().name(n).build()));
+        return masterDataCache.getOrCreateUnit(name, () -> Unit.builder().name(name).build());
     }
 
     private JobPosition resolveJob(String name) {
-        return resolveCached(name, jobCache, jobRepo::findByNameIgnoreCase,
-                n -> jobRepo.save(JobPosition.builder().name(n).build()));
-    }
-
-    private <T> T resolveCached(String name, Map<String, T> cache,
-            java.util.function.Function<String, Optional<T>> finder,
-            java.util.function.Function<String, T> creator) {
-        if (name == null || name.isBlank())
-            return null;
-        return cache.computeIfAbsent(name.toLowerCase(),
-                key -> finder.apply(name).orElseGet(() -> creator.apply(name)));
+        return masterDataCache.getOrCreateJob(name, () -> JobPosition.builder().name(name).build());
     }
 }
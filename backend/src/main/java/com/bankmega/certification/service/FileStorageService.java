@@ -2,124 +2,181 @@ package com.bankmega.certification.service;
 
 import com.bankmega.certification.entity.EmployeeCertification;
 import com.bankmega.certification.repository.EmployeeCertificationRepository;
+import com.bankmega.certification.storage.CertificateStorage;
+import com.bankmega.certification.storage.StoredObject;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class FileStorageService {
 
-    private static final String STORAGE_DIR = "C:/Users/nakul/Documents/Magang/Project/MegaCertification/storage";
+    // Atribut request sendfile Tomcat (lihat org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
 
     private final EmployeeCertificationRepository certificationRepo;
+    private final CertificateStorage storage;
+    private final CertificateDerivativeService derivativeService;
+    private final CertificateBlobService blobService;
+
+    @Value("${storage.serve.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @Value("${storage.max-image-bytes:20971520}")
+    private long maxImageBytes;
 
     // ================== SAVE ==================
+    /**
+     * Simpan file sebagai blob content-addressed (lihat {@link CertificateBlobService}).
+     * Isi di-stream ke file sementara sambil di-hash, tidak pernah di-buffer penuh di heap.
+     */
     public String save(Long certificationId, MultipartFile file) {
-        try {
-            EmployeeCertification ec = certificationRepo.findById(certificationId)
-                    .orElseThrow(() -> new RuntimeException("Certification not found"));
-
-            String nip = ec.getEmployee().getNip();
-            String certCode = ec.getCertificationRule().getCertification().getCode();
-
-            Integer levelCode = ec.getCertificationRule().getCertificationLevel() != null
-                    ? ec.getCertificationRule().getCertificationLevel().getLevel()
-                    : null;
-
-            String subCode = ec.getCertificationRule().getSubField() != null
-                    ? ec.getCertificationRule().getSubField().getCode()
-                    : null;
-
-            // ✅ Validasi tipe file
-            String originalName = file.getOriginalFilename();
-            String contentType = file.getContentType();
-            if (contentType == null ||
-                    !(contentType.equals("image/png")
-                            || contentType.equals("image/jpg")
-                            || contentType.equals("image/jpeg"))) {
-                throw new IllegalArgumentException("Hanya file PNG, JPG, atau JPEG yang diperbolehkan");
-            }
+        if (file.getSize() > maxImageBytes) {
+            throw new IllegalArgumentException("Ukuran file maksimal " + (maxImageBytes / (1024 * 1024)) + " MB");
+        }
+        try (InputStream in = file.getInputStream()) {
+            return save(certificationId, in, file.getOriginalFilename(), file.getContentType());
+        } catch (IOException e) {
+            throw new RuntimeException("Gagal menyimpan file", e);
+        }
+    }
 
-            // ✅ Ambil extension
-            String extension = "";
-            if (originalName != null && originalName.contains(".")) {
-                extension = originalName.substring(originalName.lastIndexOf("."));
-            }
+    public String save(Long certificationId, InputStream content, String originalName, String contentType) {
+        EmployeeCertification ec = certificationRepo.findById(certificationId)
+                .orElseThrow(() -> new RuntimeException("Certification not found"));
 
-            // ✅ Nama unik
-            String timestamp = LocalDateTime.now()
-                    .format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        // ✅ Validasi tipe file
+        if (!isAllowedContentType(contentType)) {
+            throw new IllegalArgumentException("Hanya file PNG, JPG, atau JPEG yang diperbolehkan");
+        }
 
-            StringBuilder newFileName = new StringBuilder();
-            newFileName.append(nip).append("_").append(certCode);
+        try {
+            return attach(ec, content, originalName, contentType);
+        } catch (IOException e) {
+            throw new RuntimeException("Gagal menyimpan file", e);
+        }
+    }
 
-            if (levelCode != null) {
-                newFileName.append("_L").append(levelCode);
-            }
-            if (subCode != null && !subCode.isBlank()) {
-                newFileName.append("_").append(subCode);
-            }
+    static boolean isAllowedContentType(String contentType) {
+        return contentType != null
+                && (contentType.equals("image/png")
+                        || contentType.equals("image/jpg")
+                        || contentType.equals("image/jpeg"));
+    }
 
-            newFileName.append("_").append(timestamp).append(extension);
+    public long getMaxImageBytes() {
+        return maxImageBytes;
+    }
 
-            // ✅ Simpan file ke storage
-            Path storagePath = Paths.get(STORAGE_DIR);
-            if (!Files.exists(storagePath)) {
-                Files.createDirectories(storagePath);
+    // Spool + hash → simpan blob → pindahkan referensi sertifikat ke blob baru
+    String attach(EmployeeCertification ec, InputStream content, String originalName, String contentType)
+            throws IOException {
+        Path tmp = Files.createTempFile("cert-upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
             }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String key = blobService.store(hash, contentType, tmp);
 
-            Path filePath = storagePath.resolve(newFileName.toString());
-            file.transferTo(filePath.toFile());
+            // file lama tidak dihapus: snapshot history masih merujuknya, GC yang membereskan
+            if (!key.equals(ec.getFileUrl())) {
+                blobService.release(ec.getFileUrl());
+                blobService.retain(key);
+            }
 
             // ✅ Update info file ke entity
-            ec.setFileUrl(newFileName.toString()); // simpan hanya nama file
+            ec.setFileUrl(key);
             ec.setFileName(originalName);
-            ec.setFileType(contentType != null ? contentType : "image/jpeg");
+            ec.setFileType(contentType.equals("image/png") ? "image/png" : "image/jpeg");
+            ec.setFileHash(hash);
             certificationRepo.save(ec);
 
-            return newFileName.toString();
+            return key;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Gagal menyimpan file", e);
+    // Nama file mengikuti konvensi lama: NIP_KODE[_Llevel][_SUB] (dipakai untuk download & bulk upload ZIP)
+    static String conventionalName(EmployeeCertification ec) {
+        StringBuilder name = new StringBuilder();
+        name.append(ec.getEmployee().getNip()).append("_")
+                .append(ec.getCertificationRule().getCertification().getCode());
+
+        if (ec.getCertificationRule().getCertificationLevel() != null) {
+            name.append("_L").append(ec.getCertificationRule().getCertificationLevel().getLevel());
+        }
+        String subCode = ec.getCertificationRule().getSubField() != null
+                ? ec.getCertificationRule().getSubField().getCode()
+                : null;
+        if (subCode != null && !subCode.isBlank()) {
+            name.append("_").append(subCode);
         }
+        return name.toString();
+    }
+
+    static String downloadName(EmployeeCertification ec) {
+        String fileUrl = ec.getFileUrl();
+        return conventionalName(ec) + (fileUrl != null && fileUrl.endsWith(".png") ? ".png" : ".jpg");
     }
 
     // ================== DELETE ==================
+    // Lepas referensi saja; blob tetap ada selama masih dirujuk history, sisanya di-GC setelah grace period
     public void deleteCertificate(Long certificationId) {
         EmployeeCertification ec = certificationRepo.findById(certificationId)
                 .orElseThrow(() -> new RuntimeException("Certification not found"));
 
-        if (ec.getFileUrl() != null) {
-            Path filePath = Paths.get(STORAGE_DIR).resolve(ec.getFileUrl());
-            try {
-                Files.deleteIfExists(filePath);
-            } catch (IOException e) {
-                throw new RuntimeException("Gagal menghapus file dari storage", e);
-            }
-        }
+        blobService.release(ec.getFileUrl());
 
         // Reset info file di entity
         ec.setFileUrl(null);
         ec.setFileName(null);
         ec.setFileType(null);
+        ec.setFileHash(null);
         certificationRepo.save(ec);
     }
 
     // ================== SERVE FILE (Preview / Download) ==================
-    public ResponseEntity<Resource> serveFile(Long certificationId, boolean download) {
+    /**
+     * Layani file (original atau turunan thumb/medium) dengan ETag (hash isi), Last-Modified,
+     * Cache-Control, conditional GET (304) dan single byte-range (206).
+     * File lokal dikirim zero-copy lewat sendfile Tomcat.
+     */
+    public ResponseEntity<Resource> serveFile(Long certificationId, boolean download,
+            CertificateDerivativeService.Size size, HttpServletRequest request) {
         EmployeeCertification ec = certificationRepo.findById(certificationId)
                 .orElseThrow(() -> new RuntimeException("Certification not found"));
 
@@ -128,27 +185,170 @@ public class FileStorageService {
         }
 
         try {
-            Path filePath = Paths.get(STORAGE_DIR).resolve(ec.getFileUrl());
-            Resource resource = new UrlResource(filePath.toUri());
+            String hash = ensureFileHash(ec);
+            String key = ec.getFileUrl();
+            String contentType = ec.getFileType() != null ? ec.getFileType() : "image/jpeg";
+            String fileNameToUse = download ? downloadName(ec) : ec.getFileName();
+            String etag = "\"" + hash + "\"";
 
-            if (!resource.exists()) {
-                throw new RuntimeException("File tidak ditemukan");
+            // turunan tidak bisa dibuat (bukan gambar yang dikenali ImageIO) → fallback ke file original
+            Optional<String> derivativeKey = size == CertificateDerivativeService.Size.ORIGINAL
+                    ? Optional.empty()
+                    : derivativeService.ensure(ec.getFileUrl(), hash, size);
+            if (derivativeKey.isPresent()) {
+                String suffix = size.name().toLowerCase(Locale.ROOT);
+                key = derivativeKey.get();
+                contentType = CertificateDerivativeService.CONTENT_TYPE;
+                fileNameToUse = baseName(fileNameToUse) + "_" + suffix + ".jpg";
+                etag = "\"" + hash + "-" + suffix + "\"";
             }
 
-            String fileNameToUse = download ? ec.getFileUrl() : ec.getFileName();
+            StoredObject object = storage.stat(key)
+                    .orElseThrow(() -> new RuntimeException("File tidak ditemukan"));
+
+            // HTTP date cuma presisi detik
+            Instant lastModified = object.getLastModified().truncatedTo(ChronoUnit.SECONDS);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setETag(etag);
+            headers.setLastModified(lastModified);
+            headers.setCacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                    .cachePublic()
+                    .mustRevalidate());
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+            if (isNotModified(request, etag, lastModified)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+            }
 
             String contentDisposition = download
                     ? "attachment; filename=\"" + fileNameToUse + "\""
                     : "inline; filename=\"" + fileNameToUse + "\"";
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(
-                            ec.getFileType() != null ? ec.getFileType() : "image/jpeg"))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
-                    .body(resource);
+            headers.setContentType(MediaType.parseMediaType(contentType));
+            headers.set(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+
+            // ✅ Range: cuma single range; multi range / If-Range basi → kirim full (boleh menurut RFC 9110)
+            long objectSize = object.getSize();
+            long start = 0;
+            long end = objectSize - 1;
+            HttpStatus status = HttpStatus.OK;
+
+            HttpRange range = singleRange(request, etag, lastModified);
+            if (range != null) {
+                try {
+                    start = range.getRangeStart(objectSize);
+                    end = range.getRangeEnd(objectSize);
+                } catch (IllegalArgumentException e) {
+                    start = objectSize; // range di luar ukuran file
+                }
+                if (start >= objectSize || end < start) {
+                    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes */" + objectSize)
+                            .build();
+                }
+                status = HttpStatus.PARTIAL_CONTENT;
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + objectSize);
+            }
+
+            long length = end - start + 1;
+            headers.setContentLength(length);
+
+            // ✅ Zero-copy: Tomcat kirim langsung dari page cache ke socket, body tidak lewat heap
+            Optional<Path> localPath = storage.localPath(key);
+            if (localPath.isPresent() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+                request.setAttribute(SENDFILE_FILENAME, localPath.get().toRealPath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1); // exclusive
+                return ResponseEntity.status(status).headers(headers).build();
+            }
+
+            // stream ditutup oleh converter setelah body selesai ditulis
+            Resource resource = new InputStreamResource(storage.open(key, start, length));
+            return ResponseEntity.status(status).headers(headers).body(resource);
 
         } catch (Exception e) {
             throw new RuntimeException("Gagal membuka file sertifikat", e);
         }
     }
-}
\ No newline at end of file
+
+    private static String baseName(String fileName) {
+        if (fileName == null)
+            return "certificate";
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    // File lama (sebelum ada file_hash) di-hash sekali saat pertama dilayani
+    private String ensureFileHash(EmployeeCertification ec) throws IOException {
+        if (ec.getFileHash() != null)
+            return ec.getFileHash();
+
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(storage.open(ec.getFileUrl()), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        ec.setFileHash(HexFormat.of().formatHex(digest.digest()));
+        certificationRepo.save(ec);
+        return ec.getFileHash();
+    }
+
+    // If-None-Match menang atas If-Modified-Since (RFC 9110 §13.2.2)
+    private boolean isNotModified(HttpServletRequest request, String etag, Instant lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/"))
+                    tag = tag.substring(2); // weak comparison
+                if (tag.equals("*") || tag.equals(etag))
+                    return true;
+            }
+            return false;
+        }
+
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince != -1 && lastModified.toEpochMilli() <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            return false; // tanggal tidak valid → abaikan
+        }
+    }
+
+    private HttpRange singleRange(HttpServletRequest request, String etag, Instant lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null)
+            return null;
+
+        // If-Range: range cuma berlaku kalau representasi di client masih sama
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                if (!ifRange.equals(etag))
+                    return null; // wajib strong comparison
+            } else {
+                try {
+                    if (request.getDateHeader(HttpHeaders.IF_RANGE) != lastModified.toEpochMilli())
+                        return null;
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null; // Range tidak valid → abaikan, kirim full
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+}
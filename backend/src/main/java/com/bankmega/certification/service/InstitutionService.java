@@ -1,5 +1,7 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.cache.ReferenceDataCache;
+import com.bankmega.certification.cache.ReferenceDataCache.Region;
 import com.bankmega.certification.dto.InstitutionRequest;
 import com.bankmega.certification.dto.InstitutionResponse;
 import com.bankmega.certification.entity.Institution;
@@ -17,6 +19,7 @@ import java.util.stream.Collectors;
 public class InstitutionService {
 
     private final InstitutionRepository institutionRepository;
+    private final ReferenceDataCache referenceCache;
 
     @Transactional
     public InstitutionResponse create(InstitutionRequest req) {
@@ -29,13 +32,15 @@ public class InstitutionService {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        return toResponse(institutionRepository.save(institution));
+        InstitutionResponse res = toResponse(institutionRepository.save(institution));
+        referenceCache.evict(Region.INSTITUTION);
+        return res;
     }
 
     public List<InstitutionResponse> getAll() {
-        return institutionRepository.findAll().stream()
+        return referenceCache.getList(Region.INSTITUTION, "all", () -> institutionRepository.findAll().stream()
                 .map(this::toResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public InstitutionResponse getById(Long id) {
@@ -55,7 +60,9 @@ public class InstitutionService {
         institution.setContactPerson(req.getContactPerson());
         institution.setUpdatedAt(LocalDateTime.now());
 
-        return toResponse(institutionRepository.save(institution));
+        InstitutionResponse res = toResponse(institutionRepository.save(institution));
+        referenceCache.evict(Region.INSTITUTION);
+        return res;
     }
 
     @Transactional
@@ -63,6 +70,7 @@ public class InstitutionService {
         Institution institution = institutionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Institution tidak ditemukan"));
         institutionRepository.delete(institution);
+        referenceCache.evict(Region.INSTITUTION);
     }
 
     private InstitutionResponse toResponse(Institution i) {
@@ -1,13 +1,16 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.cache.MasterDataCache;
 import com.bankmega.certification.dto.JobCertImportResponse;
 import com.bankmega.certification.dto.JobCertImportLogResponse;
 import com.bankmega.certification.entity.*;
+import com.bankmega.certification.event.EligibilityDirtyEvent;
 import com.bankmega.certification.repository.JobCertificationImportLogRepository;
 import com.bankmega.certification.repository.JobCertificationMappingRepository;
-import com.bankmega.certification.repository.JobPositionRepository;
 import com.bankmega.certification.repository.CertificationRuleRepository;
+import com.bankmega.certification.util.ExcelStreamReader;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.core.io.ByteArrayResource;
@@ -26,9 +29,10 @@ import java.util.*;
 public class JobCertificationImportService {
 
     private final JobCertificationImportLogRepository logRepo;
-    private final JobPositionRepository jobPositionRepo;
+    private final MasterDataCache masterDataCache;
     private final CertificationRuleRepository ruleRepo;
     private final JobCertificationMappingRepository mappingRepo;
+    private final ApplicationEventPublisher eventPublisher;
     // private final PicCertificationScopeRepository scopeRepo; // kalau mau validasi PIC scope
 
     public JobCertImportResponse dryRun(MultipartFile file, User user) {
@@ -38,7 +42,7 @@ public class JobCertificationImportService {
     @Transactional
     public JobCertImportResponse confirm(MultipartFile file, User user) {
         JobCertImportResponse response = process(file, false, user);
-        response.setMessage("Import berhasil. ⚠️ Jangan lupa refresh eligibility secara manual.");
+        response.setMessage("Import berhasil. Eligibility pegawai di jabatan terdampak dihitung ulang otomatis.");
         return response;
     }
 
@@ -52,22 +56,19 @@ public class JobCertificationImportService {
 
     private JobCertImportResponse process(MultipartFile file, boolean dryRun, User user) {
         List<String> errorDetails = new ArrayList<>();
-        int processed = 0, inserted = 0, reactivated = 0, skipped = 0, errors = 0;
-        int newJobs = 0; // 🔥 tambahan counter job baru
+        ImportCounter c = new ImportCounter();
 
-        try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-
-            for (Row row : sheet) {
-                if (row.getRowNum() == 0) continue; // skip header
-                processed++;
+        try {
+            ExcelStreamReader.read(file, (rowNum, row) -> {
+                if (rowNum == 0) return; // skip header
+                c.processed++;
 
                 try {
-                    String jobName = getCellValue(row.getCell(0));
-                    String certCode = getCellValue(row.getCell(1));
-                    String levelStr = getCellValue(row.getCell(2));
-                    String subField = getCellValue(row.getCell(3));
-                    String status = getCellValue(row.getCell(4));
+                    String jobName = row.get(0);
+                    String certCode = row.get(1);
+                    String levelStr = row.get(2);
+                    String subField = row.get(3);
+                    String status = row.get(4);
 
                     if (jobName.isBlank() || certCode.isBlank()) {
                         throw new IllegalArgumentException("Job name & cert code wajib diisi");
@@ -77,21 +78,20 @@ public class JobCertificationImportService {
                     CertificationRule rule = findRuleUnique(certCode, levelStr, subField);
 
                     // 🔹 Cari JobPosition
-                    Optional<JobPosition> jobOpt = jobPositionRepo.findByNameIgnoreCase(jobName.trim());
+                    Optional<JobPosition> jobOpt = masterDataCache.findJob(jobName.trim());
                     JobPosition job;
                     if (jobOpt.isEmpty()) {
                         if (dryRun) {
                             // simulate job baru
-                            newJobs++;
+                            c.newJobs++;
                             job = JobPosition.builder()
                                     .id(-1L) // dummy ID supaya gak null
                                     .name(jobName.trim())
                                     .build();
                         } else {
-                            job = jobPositionRepo.save(
-                                    JobPosition.builder().name(jobName.trim()).build()
-                            );
-                            newJobs++;
+                            job = masterDataCache.getOrCreateJob(jobName.trim(),
+                                    () -> JobPosition.builder().name(jobName.trim()).build());
+                            c.newJobs++;
                         }
                     } else {
                         job = jobOpt.get();
@@ -108,8 +108,9 @@ public class JobCertificationImportService {
                                     .isActive(!"INACTIVE".equalsIgnoreCase(status))
                                     .build();
                             mappingRepo.save(mapping);
+                            c.dirtyJobIds.add(job.getId());
                         }
-                        inserted++;
+                        c.inserted++;
                     } else {
                         JobCertificationMapping mapping = existing.get();
                         if (mapping.getDeletedAt() != null || !mapping.getIsActive()) {
@@ -117,24 +118,31 @@ public class JobCertificationImportService {
                                 mapping.setDeletedAt(null);
                                 mapping.setIsActive(!"INACTIVE".equalsIgnoreCase(status));
                                 mappingRepo.save(mapping);
+                                c.dirtyJobIds.add(job.getId());
                             }
-                            reactivated++;
+                            c.reactivated++;
                         } else {
-                            skipped++;
+                            c.skipped++;
                         }
                     }
 
                 } catch (Exception e) {
-                    errors++;
-                    errorDetails.add("Row " + row.getRowNum() + ": " + e.getMessage());
+                    c.errors++;
+                    errorDetails.add("Row " + rowNum + ": " + e.getMessage());
                 }
-            }
+            });
         } catch (IOException e) {
             throw new IllegalArgumentException("Invalid file format", e);
         }
 
+        int processed = c.processed, inserted = c.inserted, reactivated = c.reactivated,
+                skipped = c.skipped, errors = c.errors, newJobs = c.newJobs;
+
         // 🔹 Save log
         if (!dryRun) {
+            // mapping baru / aktif lagi → eligibility pegawai di jabatan tsb dihitung ulang setelah commit
+            eventPublisher.publishEvent(EligibilityDirtyEvent.ofJobs(c.dirtyJobIds));
+
             JobCertificationImportLog log = JobCertificationImportLog.builder()
                     .user(user)
                     .fileName(file.getOriginalFilename())
@@ -192,12 +200,11 @@ public class JobCertificationImportService {
                 ));
     }
 
-    private String getCellValue(Cell cell) {
-        if (cell == null) return "";
-        if (cell.getCellType() == CellType.NUMERIC) {
-            return String.valueOf((long) cell.getNumericCellValue());
-        }
-        return cell.toString().trim();
+    // counter per proses import (dipakai di dalam callback baris)
+    private static class ImportCounter {
+        int processed, inserted, reactivated, skipped, errors;
+        int newJobs; // 🔥 counter job baru
+        final Set<Long> dirtyJobIds = new HashSet<>(); // jabatan yang mapping-nya berubah
     }
 
     @Transactional(readOnly = true)
@@ -5,18 +5,22 @@ import com.bankmega.certification.dto.JobCertificationMappingResponse;
 import com.bankmega.certification.entity.CertificationRule;
 import com.bankmega.certification.entity.JobCertificationMapping;
 import com.bankmega.certification.entity.JobPosition;
+import com.bankmega.certification.event.EligibilityDirtyEvent;
 import com.bankmega.certification.repository.CertificationRuleRepository;
 import com.bankmega.certification.repository.JobCertificationMappingRepository;
 import com.bankmega.certification.repository.JobPositionRepository;
 import com.bankmega.certification.specification.JobCertificationMappingSpecification;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +29,7 @@ public class JobCertificationMappingService {
     private final JobCertificationMappingRepository mappingRepo;
     private final JobPositionRepository jobPositionRepo;
     private final CertificationRuleRepository ruleRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     // 🔹 Convert entity → DTO Response
     private JobCertificationMappingResponse toResponse(JobCertificationMapping m) {
@@ -94,7 +99,10 @@ public class JobCertificationMappingService {
                 .updatedAt(Instant.now())
                 .build();
 
-        return toResponse(mappingRepo.save(mapping));
+        JobCertificationMapping saved = mappingRepo.save(mapping);
+        eventPublisher.publishEvent(EligibilityDirtyEvent.ofJobs(List.of(job.getId())));
+
+        return toResponse(saved);
     }
 
     // 🔹 Update mapping
@@ -103,6 +111,10 @@ public class JobCertificationMappingService {
         JobCertificationMapping mapping = mappingRepo.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new IllegalArgumentException("Mapping tidak ditemukan"));
 
+        // jabatan lama juga dirty kalau mapping dipindah ke jabatan lain
+        Set<Long> dirtyJobIds = new HashSet<>();
+        dirtyJobIds.add(mapping.getJobPosition().getId());
+
         if (req.getJobPositionId() != null) {
             mapping.setJobPosition(jobPositionRepo.findById(req.getJobPositionId())
                     .orElseThrow(() -> new IllegalArgumentException("Job Position tidak ditemukan")));
@@ -118,7 +130,12 @@ public class JobCertificationMappingService {
         }
 
         mapping.setUpdatedAt(Instant.now());
-        return toResponse(mappingRepo.save(mapping));
+        JobCertificationMapping saved = mappingRepo.save(mapping);
+
+        dirtyJobIds.add(saved.getJobPosition().getId());
+        eventPublisher.publishEvent(EligibilityDirtyEvent.ofJobs(dirtyJobIds));
+
+        return toResponse(saved);
     }
 
     // 🔹 Toggle aktif/nonaktif
@@ -130,7 +147,10 @@ public class JobCertificationMappingService {
         mapping.setIsActive(!mapping.getIsActive());
         mapping.setUpdatedAt(Instant.now());
 
-        return toResponse(mappingRepo.save(mapping));
+        JobCertificationMapping saved = mappingRepo.save(mapping);
+        eventPublisher.publishEvent(EligibilityDirtyEvent.ofJobs(List.of(saved.getJobPosition().getId())));
+
+        return toResponse(saved);
     }
 
     // 🔹 Soft delete mapping
@@ -144,6 +164,7 @@ public class JobCertificationMappingService {
         mapping.setUpdatedAt(Instant.now());
 
         mappingRepo.save(mapping);
+        eventPublisher.publishEvent(EligibilityDirtyEvent.ofJobs(List.of(mapping.getJobPosition().getId())));
     }
 
     // 🔹 Ambil semua mapping aktif untuk 1 jabatan
@@ -1,5 +1,6 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.cache.MasterDataCache;
 import com.bankmega.certification.dto.JobPositionRequest;
 import com.bankmega.certification.dto.JobPositionResponse;
 import com.bankmega.certification.entity.JobPosition;
@@ -21,6 +22,7 @@ public class JobPositionService {
 
     private final JobPositionRepository repo;
     private final EmployeeRepository employeeRepo;
+    private final MasterDataCache masterDataCache;
 
     // ✅ Ambil semua tanpa paging (dropdown)
     public List<JobPositionResponse> getAll() {
@@ -54,13 +56,12 @@ public class JobPositionService {
     // ✅ Create baru atau ambil existing
     @Transactional
     public JobPositionResponse createOrGet(JobPositionRequest req) {
-        JobPosition jp = repo.findByNameIgnoreCase(req.getName())
-                .orElseGet(() -> repo.save(JobPosition.builder()
-                        .name(req.getName())
-                        .isActive(true)
-                        .createdAt(Instant.now())
-                        .updatedAt(Instant.now())
-                        .build()));
+        JobPosition jp = masterDataCache.getOrCreateJob(req.getName(), () -> JobPosition.builder()
+                .name(req.getName())
+                .isActive(true)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
         return mapToResponse(jp);
     }
 
@@ -79,6 +80,7 @@ public class JobPositionService {
 
         jp.setIsActive(!jp.getIsActive());
         jp.setUpdatedAt(Instant.now());
+        masterDataCache.evictJob(jp.getId());
         return mapToResponse(repo.save(jp));
     }
 
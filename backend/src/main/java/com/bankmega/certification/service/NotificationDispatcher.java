@@ -0,0 +1,203 @@
+package com.bankmega.certification.service;
+
+import com.bankmega.certification.entity.NotificationOutbox;
+import com.bankmega.certification.repository.NotificationOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Drain outbox notifikasi di thread scheduler (bukan thread request):
+ * klaim batch → satu email digest per penerima → tandai SENT / jadwalkan retry dengan backoff.
+ */
+@Slf4j
+@Service
+public class NotificationDispatcher {
+
+    private static final Duration STALE_CLAIM = Duration.ofMinutes(15);
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final NotificationOutboxRepository outboxRepo;
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final String from;
+    private final int batchSize;
+    private final long sendIntervalMs;
+    private final int maxAttempts;
+    private final long backoffBaseSeconds;
+
+    public NotificationDispatcher(NotificationOutboxRepository outboxRepo,
+            ObjectProvider<JavaMailSender> mailSender,
+            TransactionTemplate transactionTemplate,
+            @Value("${notification.mail.enabled:false}") boolean enabled,
+            @Value("${notification.mail.from:no-reply@bankmega.local}") String from,
+            @Value("${notification.dispatch.batch-size:200}") int batchSize,
+            @Value("${notification.dispatch.send-interval-ms:500}") long sendIntervalMs,
+            @Value("${notification.dispatch.max-attempts:5}") int maxAttempts,
+            @Value("${notification.dispatch.backoff-base-seconds:60}") long backoffBaseSeconds) {
+        this.outboxRepo = outboxRepo;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.from = from;
+        this.batchSize = batchSize;
+        this.sendIntervalMs = sendIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseSeconds = backoffBaseSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.dispatch.interval-ms:60000}")
+    public void dispatch() {
+        if (!enabled)
+            return;
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            log.warn("Notifikasi aktif tapi JavaMailSender tidak terkonfigurasi (spring.mail.host)");
+            return;
+        }
+
+        List<NotificationOutbox> claimed = claimBatch();
+        if (claimed.isEmpty())
+            return;
+
+        // digest: semua item milik satu penerima digabung jadi satu email
+        Map<String, List<NotificationOutbox>> byRecipient = new LinkedHashMap<>();
+        for (NotificationOutbox n : claimed) {
+            byRecipient.computeIfAbsent(n.getRecipientEmail(), k -> new ArrayList<>()).add(n);
+        }
+
+        int sent = 0;
+        for (Map.Entry<String, List<NotificationOutbox>> entry : byRecipient.entrySet()) {
+            if (sent > 0 && !throttle())
+                break;
+            try {
+                sender.send(buildDigest(entry.getKey(), entry.getValue()));
+                markSent(entry.getValue());
+            } catch (Exception e) {
+                log.warn("Gagal kirim notifikasi ke {}: {}", entry.getKey(), e.getMessage());
+                markFailed(entry.getValue(), e);
+            }
+            sent++;
+        }
+
+        // thread di-interrupt (shutdown) → sisa klaim dikembalikan ke antrian
+        List<NotificationOutbox> leftover = byRecipient.values().stream()
+                .flatMap(List::stream)
+                .filter(n -> n.getStatus() == NotificationOutbox.Status.SENDING)
+                .toList();
+        if (!leftover.isEmpty())
+            release(leftover);
+    }
+
+    // ===================== CLAIM =====================
+    private List<NotificationOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            outboxRepo.releaseStaleClaims(now.minus(STALE_CLAIM));
+            List<NotificationOutbox> rows = outboxRepo.lockPending(now, batchSize);
+            rows.forEach(n -> {
+                n.setStatus(NotificationOutbox.Status.SENDING);
+                n.setClaimedAt(now);
+            });
+            return outboxRepo.saveAll(rows);
+        });
+    }
+
+    // ===================== RESULT =====================
+    private void markSent(List<NotificationOutbox> items) {
+        Instant now = Instant.now();
+        items.forEach(n -> {
+            n.setStatus(NotificationOutbox.Status.SENT);
+            n.setAttempts(n.getAttempts() + 1);
+            n.setSentAt(now);
+            n.setLastError(null);
+        });
+        transactionTemplate.executeWithoutResult(status -> outboxRepo.saveAll(items));
+    }
+
+    private void markFailed(List<NotificationOutbox> items, Exception e) {
+        Instant now = Instant.now();
+        String error = e.getMessage() != null && e.getMessage().length() > 1000
+                ? e.getMessage().substring(0, 1000)
+                : e.getMessage();
+        items.forEach(n -> {
+            int attempts = n.getAttempts() + 1;
+            n.setAttempts(attempts);
+            n.setLastError(error);
+            n.setClaimedAt(null);
+            if (attempts >= maxAttempts) {
+                n.setStatus(NotificationOutbox.Status.FAILED);
+            } else {
+                // backoff eksponensial: base, 2x, 4x, ...
+                n.setStatus(NotificationOutbox.Status.PENDING);
+                n.setNextAttemptAt(now.plusSeconds(backoffBaseSeconds << (attempts - 1)));
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> outboxRepo.saveAll(items));
+    }
+
+    private void release(List<NotificationOutbox> items) {
+        items.forEach(n -> {
+            n.setStatus(NotificationOutbox.Status.PENDING);
+            n.setClaimedAt(null);
+        });
+        transactionTemplate.executeWithoutResult(status -> outboxRepo.saveAll(items));
+    }
+
+    private boolean throttle() {
+        if (sendIntervalMs <= 0)
+            return true;
+        try {
+            Thread.sleep(sendIntervalMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // ===================== DIGEST =====================
+    private SimpleMailMessage buildDigest(String recipient, List<NotificationOutbox> items) {
+        List<NotificationOutbox> expired = items.stream()
+                .filter(n -> n.getEventType() == NotificationOutbox.EventType.EXPIRED).toList();
+        List<NotificationOutbox> due = items.stream()
+                .filter(n -> n.getEventType() == NotificationOutbox.EventType.DUE).toList();
+
+        StringBuilder body = new StringBuilder();
+        body.append("Berikut ringkasan sertifikasi pegawai dalam scope Anda yang perlu ditindaklanjuti.\n");
+        appendSection(body, "SUDAH KADALUARSA", expired);
+        appendSection(body, "MENDEKATI JATUH TEMPO", due);
+        body.append("\nEmail ini dikirim otomatis oleh sistem Mega Certification.\n");
+
+        SimpleMailMessage msg = new SimpleMailMessage();
+        msg.setFrom(from);
+        msg.setTo(recipient);
+        msg.setSubject("[Mega Certification] " + expired.size() + " kadaluarsa, " + due.size() + " jatuh tempo");
+        msg.setText(body.toString());
+        return msg;
+    }
+
+    private void appendSection(StringBuilder body, String title, List<NotificationOutbox> items) {
+        if (items.isEmpty())
+            return;
+        body.append("\n").append(title).append(" (").append(items.size()).append(")\n");
+        for (NotificationOutbox n : items) {
+            body.append("- ").append(n.getSummary() != null ? n.getSummary() : "Pegawai #" + n.getEmployeeId());
+            if (n.getThresholdDate() != null)
+                body.append(" | berlaku s/d ").append(DATE_FMT.format(n.getThresholdDate()));
+            body.append("\n");
+        }
+    }
+}
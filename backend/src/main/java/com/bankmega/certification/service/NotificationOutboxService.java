@@ -0,0 +1,70 @@
+package com.bankmega.certification.service;
+
+import com.bankmega.certification.entity.EmployeeCertification;
+import com.bankmega.certification.entity.EmployeeEligibility;
+import com.bankmega.certification.entity.NotificationOutbox;
+import com.bankmega.certification.repository.NotificationOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Tulis baris outbox notifikasi di transaksi yang sama dengan perubahan status.
+ * Pengiriman email dilakukan terpisah oleh {@link NotificationDispatcher}.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxService {
+
+    private final NotificationOutboxRepository outboxRepo;
+
+    // ===================== WRITE-TIME TRANSITION =====================
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCertificationStatusChange(EmployeeCertification.Status before, EmployeeCertification ec) {
+        if (ec.getStatus() == before)
+            return;
+        if (ec.getStatus() == EmployeeCertification.Status.DUE) {
+            enqueue(ec.getEmployee().getId(), ec.getCertificationRule().getId(), ec.getValidUntil(),
+                    NotificationOutbox.EventType.DUE, NotificationOutbox.Source.CERTIFICATION);
+        } else if (ec.getStatus() == EmployeeCertification.Status.EXPIRED) {
+            enqueue(ec.getEmployee().getId(), ec.getCertificationRule().getId(), ec.getValidUntil(),
+                    NotificationOutbox.EventType.EXPIRED, NotificationOutbox.Source.CERTIFICATION);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onEligibilityStatusChange(EmployeeEligibility.EligibilityStatus before, EmployeeEligibility ee) {
+        if (ee.getStatus() == before)
+            return;
+        if (ee.getStatus() == EmployeeEligibility.EligibilityStatus.DUE) {
+            enqueue(ee.getEmployee().getId(), ee.getCertificationRule().getId(), ee.getDueDate(),
+                    NotificationOutbox.EventType.DUE, NotificationOutbox.Source.ELIGIBILITY);
+        } else if (ee.getStatus() == EmployeeEligibility.EligibilityStatus.EXPIRED) {
+            enqueue(ee.getEmployee().getId(), ee.getCertificationRule().getId(), ee.getDueDate(),
+                    NotificationOutbox.EventType.EXPIRED, NotificationOutbox.Source.ELIGIBILITY);
+        }
+    }
+
+    // ===================== SWEEP (BULK) =====================
+    // Dipanggil sebelum UPDATE sweep, karena predikatnya bergantung pada status lama
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int enqueueSweepTransitions(LocalDate from, LocalDate today) {
+        return outboxRepo.enqueueCertificationsExpiring(from, today)
+                + outboxRepo.enqueueCertificationsDue(from, today)
+                + outboxRepo.enqueueEligibilitiesExpiring(from, today)
+                + outboxRepo.enqueueEligibilitiesDue(from, today);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int enqueueReconcileTransitions(LocalDate today) {
+        return outboxRepo.enqueueReconcileTransitions(today);
+    }
+
+    private void enqueue(Long employeeId, Long ruleId, LocalDate threshold,
+            NotificationOutbox.EventType type, NotificationOutbox.Source source) {
+        outboxRepo.enqueue(employeeId, ruleId, threshold, type.name(), source.name());
+    }
+}
@@ -1,5 +1,7 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.cache.ReferenceDataCache;
+import com.bankmega.certification.cache.ReferenceDataCache.Region;
 import com.bankmega.certification.dto.RefreshmentTypeRequest;
 import com.bankmega.certification.dto.RefreshmentTypeResponse;
 import com.bankmega.certification.entity.RefreshmentType;
@@ -15,6 +17,7 @@ import java.util.List;
 public class RefreshmentTypeService {
 
     private final RefreshmentTypeRepository repo;
+    private final ReferenceDataCache referenceCache;
 
     public List<RefreshmentTypeResponse> getAll() {
         return repo.findAll().stream()
@@ -46,13 +49,21 @@ public class RefreshmentTypeService {
 
         type.setName(req.getName());
 
-        return toResponse(repo.save(type));
+        RefreshmentType saved = repo.save(type);
+        evictCaches();
+        return toResponse(saved);
     }
 
     public void delete(Long id) {
         RefreshmentType type = repo.findById(id)
                 .orElseThrow(() -> new NotFoundException("Refreshment type not found with id " + id));
         repo.delete(type);
+        evictCaches();
+    }
+
+    // nama refreshment type ikut tampil di katalog rule
+    private void evictCaches() {
+        referenceCache.evict(Region.CERTIFICATION_RULE);
     }
 
     private RefreshmentTypeResponse toResponse(RefreshmentType type) {
@@ -1,5 +1,6 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.cache.MasterDataCache;
 import com.bankmega.certification.dto.RegionalRequest;
 import com.bankmega.certification.dto.RegionalResponse;
 import com.bankmega.certification.entity.Regional;
@@ -21,6 +22,7 @@ public class RegionalService {
 
     private final RegionalRepository repo;
     private final EmployeeRepository employeeRepo;
+    private final MasterDataCache masterDataCache;
 
     // ✅ Ambil semua (dropdown)
     public List<RegionalResponse> getAll() {
@@ -54,13 +56,12 @@ public class RegionalService {
     // ✅ Create baru atau ambil existing
     @Transactional
     public RegionalResponse createOrGet(RegionalRequest req) {
-        Regional r = repo.findByNameIgnoreCase(req.getName())
-                .orElseGet(() -> repo.save(Regional.builder()
-                        .name(req.getName())
-                        .isActive(true)
-                        .createdAt(Instant.now())
-                        .updatedAt(Instant.now())
-                        .build()));
+        Regional r = masterDataCache.getOrCreateRegional(req.getName(), () -> Regional.builder()
+                .name(req.getName())
+                .isActive(true)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
         return mapToResponse(r);
     }
 
@@ -79,6 +80,7 @@ public class RegionalService {
 
         r.setIsActive(!r.getIsActive());
         r.setUpdatedAt(Instant.now());
+        masterDataCache.evictRegional(r.getId());
         return mapToResponse(repo.save(r));
     }
 
@@ -8,6 +8,7 @@ import com.bankmega.certification.exception.ConflictException;
 import com.bankmega.certification.exception.NotFoundException;
 import com.bankmega.certification.repository.RoleRepository;
 import com.bankmega.certification.repository.UserRepository;
+import com.bankmega.certification.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -24,6 +25,7 @@ public class RoleService {
 
     private final RoleRepository roleRepo;
     private final UserRepository userRepo; // ✅ tambahin ini
+    private final PrincipalCache principalCache;
 
     // 🔹 List semua role (buat dropdown, dsb)
     public List<RoleResponse> getAll() {
@@ -74,6 +76,7 @@ public class RoleService {
         }
 
         r.setName(name);
+        principalCache.evictRole(id); // authority ROLE_<name> ikut berubah
         return toResp(roleRepo.save(r));
     }
 
@@ -88,6 +91,7 @@ public class RoleService {
         }
 
         roleRepo.delete(r);
+        principalCache.evictRole(id);
     }
 
     private String normalize(String s) {
@@ -0,0 +1,116 @@
+package com.bankmega.certification.service;
+
+import com.bankmega.certification.entity.StatusSweepRun;
+import com.bankmega.certification.repository.EmployeeCertificationRepository;
+import com.bankmega.certification.repository.EmployeeEligibilityRepository;
+import com.bankmega.certification.repository.StatusSweepRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Sweep harian ACTIVE → DUE → EXPIRED untuk sertifikat & eligibility.
+ * Status dihitung saat write saja, jadi threshold yang lewat tengah malam perlu disapu.
+ * Rentang sweep = (sweep sukses terakhir, hari ini], jadi hari yang terlewat ikut ter-catch-up.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatusSweepService {
+
+    // belum pernah sweep → sapu semua data lama sekali jalan
+    private static final LocalDate INITIAL_FROM = LocalDate.of(1900, 1, 1);
+
+    private final StatusSweepRunRepository runRepo;
+    private final EmployeeCertificationRepository certificationRepo;
+    private final EmployeeEligibilityRepository eligibilityRepo;
+    private final NotificationOutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+
+    // ===================== TRIGGER =====================
+    @Scheduled(cron = "${status-sweep.cron:0 5 0 * * *}")
+    public void nightly() {
+        sweep("scheduler");
+    }
+
+    // App mati waktu jadwal jalan → kejar ketinggalan saat start
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        LocalDate today = LocalDate.now();
+        boolean upToDate = lastCompleted()
+                .map(run -> !run.getSweepDate().isBefore(today))
+                .orElse(false);
+        if (!upToDate) {
+            sweep("startup");
+        }
+    }
+
+    // ===================== SWEEP =====================
+    public synchronized StatusSweepRun sweep(String triggeredBy) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = lastCompleted().map(StatusSweepRun::getSweepDate).orElse(INITIAL_FROM);
+
+        StatusSweepRun run = StatusSweepRun.builder()
+                .fromDate(from)
+                .sweepDate(today)
+                .triggeredBy(triggeredBy)
+                .startedAt(Instant.now())
+                .build();
+
+        if (from.isAfter(today)) {
+            // jam mundur / sudah sweep untuk tanggal yang lebih baru → tidak ada yang perlu dilakukan
+            return run;
+        }
+
+        try {
+            // satu transaksi: update status + catatan run commit bareng
+            return transactionTemplate.execute(status -> {
+                // outbox dulu: predikatnya membaca status lama sebelum di-UPDATE
+                run.setNotificationsQueued(outboxService.enqueueSweepTransitions(from, today));
+                run.setCertExpiredCount(certificationRepo.expireCrossed(from, today));
+                run.setCertDueCount(certificationRepo.markDueCrossed(from, today));
+                run.setEligibilityExpiredCount(eligibilityRepo.expireCrossed(from, today));
+                run.setEligibilityDueCount(eligibilityRepo.markDueCrossed(from, today));
+                run.setStatus(StatusSweepRun.Status.COMPLETED);
+                run.setFinishedAt(Instant.now());
+                return runRepo.save(run);
+            });
+        } catch (Exception e) {
+            log.error("Status sweep {} s/d {} gagal: {}", from, today, e.getMessage(), e);
+            // transaksi rollback → tidak ada baris yang berubah
+            run.setCertExpiredCount(0);
+            run.setCertDueCount(0);
+            run.setEligibilityExpiredCount(0);
+            run.setEligibilityDueCount(0);
+            run.setNotificationsQueued(0);
+            run.setStatus(StatusSweepRun.Status.FAILED);
+            run.setErrorMessage(truncate(e.getMessage()));
+            run.setFinishedAt(Instant.now());
+            return runRepo.save(run);
+        } finally {
+            log.info("Status sweep {} s/d {} ({}): cert due={}, expired={}, eligibility due={}, expired={}, notif={}",
+                    from, today, triggeredBy,
+                    run.getCertDueCount(), run.getCertExpiredCount(),
+                    run.getEligibilityDueCount(), run.getEligibilityExpiredCount(),
+                    run.getNotificationsQueued());
+        }
+    }
+
+    private Optional<StatusSweepRun> lastCompleted() {
+        return runRepo.findFirstByStatusOrderBySweepDateDesc(StatusSweepRun.Status.COMPLETED);
+    }
+
+    private String truncate(String msg) {
+        if (msg == null)
+            return null;
+        return msg.length() > 1000 ? msg.substring(0, 1000) : msg;
+    }
+}
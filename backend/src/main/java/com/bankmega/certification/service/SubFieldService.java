@@ -1,5 +1,7 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.cache.ReferenceDataCache;
+import com.bankmega.certification.cache.ReferenceDataCache.Region;
 import com.bankmega.certification.dto.SubFieldRequest;
 import com.bankmega.certification.dto.SubFieldResponse;
 import com.bankmega.certification.entity.Certification;
@@ -21,12 +23,13 @@ public class SubFieldService {
 
     private final SubFieldRepository repo;
     private final CertificationRepository certRepo;
+    private final ReferenceDataCache referenceCache;
 
     public List<SubFieldResponse> getAll() {
-        return repo.findByDeletedAtIsNull().stream()
+        return referenceCache.getList(Region.SUB_FIELD, "all", () -> repo.findByDeletedAtIsNull().stream()
                 .sorted(Comparator.comparing(SubField::getCode, String.CASE_INSENSITIVE_ORDER))
                 .map(this::toResponse)
-                .toList();
+                .toList());
     }
 
     public SubFieldResponse getById(Long id) {
@@ -36,9 +39,10 @@ public class SubFieldService {
     }
 
     public List<SubFieldResponse> getByCertification(Long certId) {
-        return repo.findByCertificationIdAndDeletedAtIsNull(certId).stream()
-                .map(this::toResponse)
-                .toList();
+        return referenceCache.getList(Region.SUB_FIELD, "cert:" + certId,
+                () -> repo.findByCertificationIdAndDeletedAtIsNull(certId).stream()
+                        .map(this::toResponse)
+                        .toList());
     }
 
     public SubFieldResponse create(SubFieldRequest req) {
@@ -58,7 +62,9 @@ public class SubFieldService {
                 .certification(cert)
                 .build();
 
-        return toResponse(repo.save(sf));
+        SubFieldResponse res = toResponse(repo.save(sf));
+        evictCaches();
+        return res;
     }
 
     public SubFieldResponse update(Long id, SubFieldRequest req) {
@@ -80,7 +86,9 @@ public class SubFieldService {
         sf.setName(req.getName());
         sf.setCertification(cert);
 
-        return toResponse(repo.save(sf));
+        SubFieldResponse res = toResponse(repo.save(sf));
+        evictCaches();
+        return res;
     }
 
     public void softDelete(Long id) {
@@ -88,6 +96,12 @@ public class SubFieldService {
                 .orElseThrow(() -> new NotFoundException("SubField not found"));
         sf.setDeletedAt(Instant.now());
         repo.save(sf);
+        evictCaches();
+    }
+
+    // nama/kode sub bidang ikut tampil di dropdown rule
+    private void evictCaches() {
+        referenceCache.evict(Region.SUB_FIELD, Region.CERTIFICATION_RULE);
     }
 
     private SubFieldResponse toResponse(SubField sf) {
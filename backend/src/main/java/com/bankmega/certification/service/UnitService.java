@@ -1,5 +1,6 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.cache.MasterDataCache;
 import com.bankmega.certification.dto.UnitRequest;
 import com.bankmega.certification.dto.UnitResponse;
 import com.bankmega.certification.entity.Unit;
@@ -21,6 +22,7 @@ public class UnitService {
 
     private final UnitRepository repo;
     private final EmployeeRepository employeeRepo;
+    private final MasterDataCache masterDataCache;
 
     public List<UnitResponse> getAll() {
         return repo.findAllByOrderByIsActiveDescNameAsc().stream()
@@ -47,13 +49,12 @@ public class UnitService {
 
     @Transactional
     public UnitResponse createOrGet(UnitRequest req) {
-        Unit u = repo.findByNameIgnoreCase(req.getName())
-                .orElseGet(() -> repo.save(Unit.builder()
-                        .name(req.getName())
-                        .isActive(true)
-                        .createdAt(Instant.now())
-                        .updatedAt(Instant.now())
-                        .build()));
+        Unit u = masterDataCache.getOrCreateUnit(req.getName(), () -> Unit.builder()
+                .name(req.getName())
+                .isActive(true)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build());
         return mapToResponse(u);
     }
 
@@ -71,6 +72,7 @@ public class UnitService {
 
         u.setIsActive(!u.getIsActive());
         u.setUpdatedAt(Instant.now());
+        masterDataCache.evictUnit(u.getId());
         return mapToResponse(repo.save(u));
     }
 
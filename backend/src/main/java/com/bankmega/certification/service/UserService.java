@@ -1,5 +1,7 @@
 package com.bankmega.certification.service;
 
+import com.bankmega.certification.dto.UserProvisionRequest;
+import com.bankmega.certification.dto.UserProvisionResult;
 import com.bankmega.certification.dto.UserRequest;
 import com.bankmega.certification.dto.UserResponse;
 import com.bankmega.certification.entity.Employee;
@@ -10,19 +12,26 @@ import com.bankmega.certification.exception.NotFoundException;
 import com.bankmega.certification.repository.EmployeeRepository;
 import com.bankmega.certification.repository.RoleRepository;
 import com.bankmega.certification.repository.UserRepository;
+import com.bankmega.certification.security.PrincipalCache;
 import com.bankmega.certification.specification.UserSpecification;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +40,18 @@ public class UserService {
     private final UserRepository userRepo;
     private final RoleRepository roleRepo;
     private final EmployeeRepository empRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final PrincipalCache principalCache;
+
+    private static final int PROVISION_BATCH_SIZE = 500;
+
+    // pool terbatas khusus hashing BCrypt (CPU-bound), supaya import besar tidak serial di request thread
+    private final ExecutorService hashExecutor = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)), r -> {
+                Thread t = new Thread(r, "user-password-hash");
+                t.setDaemon(true);
+                return t;
+            });
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
             .withZone(ZoneId.systemDefault());
@@ -149,6 +170,7 @@ public class UserService {
         }
 
         user.setUpdatedAt(Instant.now());
+        principalCache.evictUser(user.getId());
         return toResponse(userRepo.save(user));
     }
 
@@ -161,6 +183,7 @@ public class UserService {
         user.setDeletedAt(Instant.now());
         user.setUpdatedAt(Instant.now());
         userRepo.save(user);
+        principalCache.evictUser(id);
     }
 
     // ===================== TOGGLE STATUS =====================
@@ -171,6 +194,7 @@ public class UserService {
 
         user.setIsActive(!user.getIsActive());
         user.setUpdatedAt(Instant.now());
+        principalCache.evictUser(id);
 
         return toResponse(userRepo.save(user));
     }
@@ -185,6 +209,7 @@ public class UserService {
         user.setIsFirstLogin(false);
         user.setUpdatedAt(Instant.now());
         userRepo.save(user);
+        principalCache.evictUser(userId);
     }
 
     // ===================== AUTO CREATE USER DARI EMPLOYEE =====================
@@ -215,6 +240,99 @@ public class UserService {
         });
     }
 
+    // ===================== BULK PROVISIONING (IMPORT PEGAWAI) =====================
+    // Username yang sudah ada di-skip; bentrok email / data kosong dilaporkan per user tanpa membatalkan batch.
+    @Transactional
+    public UserProvisionResult bulkProvision(List<UserProvisionRequest> items, Long roleId) {
+        List<UserProvisionResult.Failure> failures = new ArrayList<>();
+        if (items == null || items.isEmpty()) {
+            return UserProvisionResult.builder().requested(0).failures(failures).build();
+        }
+
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        items.forEach(i -> {
+            if (i.getUsername() != null)
+                usernames.add(i.getUsername());
+            if (i.getEmail() != null)
+                emails.add(i.getEmail());
+        });
+        Set<String> existingUsernames = new HashSet<>(userRepo.findExistingUsernames(usernames));
+        Set<String> takenEmails = new HashSet<>(userRepo.findExistingEmails(emails));
+
+        int skipped = 0;
+        List<UserProvisionRequest> valid = new ArrayList<>();
+        for (UserProvisionRequest item : items) {
+            String username = item.getUsername();
+            if (username == null || username.isBlank()) {
+                failures.add(failure(item, "Username kosong"));
+            } else if (existingUsernames.contains(username)) {
+                skipped++;
+            } else if (item.getEmail() == null || item.getEmail().isBlank()) {
+                failures.add(failure(item, "Email kosong"));
+            } else if (!takenEmails.add(item.getEmail())) {
+                failures.add(failure(item, "Email sudah digunakan: " + item.getEmail()));
+            } else {
+                existingUsernames.add(username); // duplikat di batch yang sama ikut ke-skip
+                valid.add(item);
+            }
+        }
+
+        // hash paralel di pool terbatas
+        List<CompletableFuture<String>> hashes = valid.stream()
+                .map(i -> CompletableFuture.supplyAsync(() -> BCrypt.hashpw(
+                        i.getPassword() != null ? i.getPassword() : i.getUsername(), BCrypt.gensalt()),
+                        hashExecutor))
+                .toList();
+
+        Timestamp now = Timestamp.from(Instant.now());
+        int created = 0;
+        for (int from = 0; from < valid.size(); from += PROVISION_BATCH_SIZE) {
+            int to = Math.min(from + PROVISION_BATCH_SIZE, valid.size());
+            List<UserProvisionRequest> chunk = valid.subList(from, to);
+            List<Object[]> args = new ArrayList<>(chunk.size());
+            for (int k = 0; k < chunk.size(); k++) {
+                UserProvisionRequest i = chunk.get(k);
+                args.add(new Object[] { i.getUsername(), i.getEmail(), hashes.get(from + k).join(),
+                        roleId, i.getEmployeeId(), now, now });
+            }
+
+            int[] results = jdbcTemplate.batchUpdate(
+                    "INSERT INTO users (username, email, password, role_id, employee_id, " +
+                            "is_active, is_first_login, created_at, updated_at) " +
+                            "VALUES (?, ?, ?, ?, ?, true, true, ?, ?) ON CONFLICT DO NOTHING",
+                    args);
+
+            for (int k = 0; k < results.length; k++) {
+                if (results[k] > 0 || results[k] == Statement.SUCCESS_NO_INFO) {
+                    created++;
+                } else {
+                    failures.add(failure(chunk.get(k), "Username / email bentrok saat insert"));
+                }
+            }
+        }
+
+        return UserProvisionResult.builder()
+                .requested(items.size())
+                .created(created)
+                .skipped(skipped)
+                .failures(failures)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdownHashExecutor() {
+        hashExecutor.shutdown();
+    }
+
+    private UserProvisionResult.Failure failure(UserProvisionRequest item, String reason) {
+        return UserProvisionResult.Failure.builder()
+                .username(item.getUsername())
+                .employeeId(item.getEmployeeId())
+                .reason(reason)
+                .build();
+    }
+
     // ===================== ACTIVE USERS =====================
     @Transactional(readOnly = true)
     public List<UserResponse> getAllActive() {
@@ -1,6 +1,9 @@
 package com.bankmega.certification.specification;
 
+import com.bankmega.certification.entity.EmployeeBatch;
 import com.bankmega.certification.entity.EmployeeEligibility;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
@@ -89,4 +92,36 @@ public class EmployeeEligibilitySpecification {
                     likeSource);
         };
     }
-}
\ No newline at end of file
+
+    public static Specification<EmployeeEligibility> activeForRule(Long ruleId) {
+        return (root, query, cb) -> cb.and(
+                cb.equal(root.get("certificationRule").get("id"), ruleId),
+                cb.isTrue(root.get("isActive")));
+    }
+
+    // 🔹 Anti-join: pegawai yang belum jadi peserta aktif batch (NOT EXISTS, pakai unique index batch+employee)
+    public static Specification<EmployeeEligibility> notEnrolledInBatch(Long batchId) {
+        return (root, query, cb) -> {
+            Subquery<Integer> sq = query.subquery(Integer.class);
+            Root<EmployeeBatch> eb = sq.from(EmployeeBatch.class);
+            sq.select(cb.literal(1)).where(
+                    cb.equal(eb.get("batch").get("id"), batchId),
+                    cb.equal(eb.get("employee").get("id"), root.get("employee").get("id")),
+                    cb.isNull(eb.get("deletedAt")));
+            return cb.not(cb.exists(sq));
+        };
+    }
+
+    // 🔹 Cari NIP / nama pegawai saja (tanpa join jabatan → pegawai tanpa jabatan tetap ikut)
+    public static Specification<EmployeeEligibility> byEmployeeKeyword(String keyword) {
+        return (root, query, cb) -> {
+            if (keyword == null || keyword.trim().isEmpty()) {
+                return cb.conjunction();
+            }
+            String likePattern = "%" + keyword.trim().toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("employee").get("nip")), likePattern),
+                    cb.like(cb.lower(root.get("employee").get("name")), likePattern));
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.bankmega.certification.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * SPI penyimpanan file sertifikat. Implementasi: filesystem lokal (storage.type=local)
+ * atau object store S3-compatible (storage.type=s3). Semua I/O streaming, tanpa buffer penuh di heap.
+ */
+public interface CertificateStorage {
+
+    /** Simpan stream ke key; size = -1 kalau tidak diketahui. */
+    void put(String key, InputStream content, long size, String contentType) throws IOException;
+
+    /** Buka stream isi object; pemanggil wajib menutup stream. */
+    InputStream open(String key) throws IOException;
+
+    /** Buka sebagian isi object [offset, offset + length). */
+    InputStream open(String key, long offset, long length) throws IOException;
+
+    Optional<StoredObject> stat(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Telusuri semua key yang tersimpan (untuk GC / rekonsiliasi).
+     * Implementasi boleh menelusuri paralel → visitor harus thread-safe.
+     */
+    void forEachKey(Consumer<StoredObject> visitor) throws IOException;
+
+    /** Path lokal kalau backend-nya filesystem (buat zero-copy), selain itu kosong. */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,156 @@
+package com.bankmega.certification.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Storage filesystem lokal. File disebar ke subfolder 2 level ({root}/ab/cd/{key}) berdasarkan hash key,
+ * supaya satu folder tidak berisi puluhan ribu file. File lama (flat di root) tetap bisa dibaca.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalFileCertificateStorage implements CertificateStorage {
+
+    private final Path root;
+
+    public LocalFileCertificateStorage(@Value("${storage.local.root:${FILE_STORAGE_PATH:./storage}}") String root)
+            throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        Files.createDirectories(this.root);
+        log.info("Certificate storage: local filesystem di {}", this.root);
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        Path target = shardedPath(key);
+        Files.createDirectories(target.getParent());
+
+        // tulis ke file sementara lalu rename atomik → pembaca tidak pernah lihat file setengah jadi
+        Path tmp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.copy(content, tmp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(existingPath(key).orElseThrow(() -> new NoSuchFileException(key)));
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        Path path = existingPath(key).orElseThrow(() -> new NoSuchFileException(key));
+        SeekableByteChannel channel = Files.newByteChannel(path, StandardOpenOption.READ);
+        channel.position(offset);
+        return new BoundedInputStream(Channels.newInputStream(channel), length);
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        Optional<Path> path = existingPath(key);
+        if (path.isEmpty())
+            return Optional.empty();
+        BasicFileAttributes attrs = Files.readAttributes(path.get(), BasicFileAttributes.class);
+        return Optional.of(new StoredObject(key, attrs.size(), attrs.lastModifiedTime().toInstant()));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(shardedPath(key));
+        Files.deleteIfExists(legacyPath(key));
+    }
+
+    @Override
+    public void forEachKey(Consumer<StoredObject> visitor) throws IOException {
+        List<Path> entries;
+        try (Stream<Path> top = Files.list(root)) {
+            entries = top.toList();
+        }
+
+        // tiap folder shard level-1 ditelusuri paralel (jalan di pool pemanggil kalau dipanggil dari ForkJoinPool)
+        entries.parallelStream().forEach(entry -> {
+            if (Files.isDirectory(entry)) {
+                try (Stream<Path> files = Files.walk(entry)) {
+                    files.filter(Files::isRegularFile).forEach(p -> visit(p, visitor));
+                } catch (IOException e) {
+                    log.warn("Gagal telusuri {}: {}", entry, e.getMessage());
+                }
+            } else if (Files.isRegularFile(entry)) {
+                visit(entry, visitor); // file lama (flat)
+            }
+        });
+    }
+
+    private void visit(Path path, Consumer<StoredObject> visitor) {
+        String name = path.getFileName().toString();
+        if (name.startsWith("."))
+            return; // file sementara upload
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            visitor.accept(new StoredObject(name, attrs.size(), attrs.lastModifiedTime().toInstant()));
+        } catch (IOException e) {
+            log.warn("Gagal baca atribut {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return existingPath(key);
+    }
+
+    // ===================== PATH =====================
+    private Optional<Path> existingPath(String key) {
+        Path sharded = shardedPath(key);
+        if (Files.isRegularFile(sharded))
+            return Optional.of(sharded);
+        Path legacy = legacyPath(key);
+        return Files.isRegularFile(legacy) ? Optional.of(legacy) : Optional.empty();
+    }
+
+    private Path shardedPath(String key) {
+        String hash = sha256(key);
+        return resolveSafe(hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + key);
+    }
+
+    private Path legacyPath(String key) {
+        return resolveSafe(key);
+    }
+
+    // key berasal dari DB, tapi tetap dijaga supaya tidak bisa keluar dari root (../)
+    private Path resolveSafe(String relative) {
+        Path resolved = root.resolve(relative).normalize();
+        if (!resolved.startsWith(root))
+            throw new IllegalArgumentException("Key storage tidak valid: " + relative);
+        return resolved;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+}
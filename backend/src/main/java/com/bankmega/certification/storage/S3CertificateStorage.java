@@ -0,0 +1,148 @@
+package com.bankmega.certification.storage;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage S3-compatible (AWS S3, atau MinIO di docker-compose buat lokal).
+ * Semua instance app berbagi bucket yang sama, jadi file bisa dilayani dari node mana pun.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3")
+public class S3CertificateStorage implements CertificateStorage {
+
+    private final S3Client client;
+    private final String bucket;
+    private final String prefix;
+
+    public S3CertificateStorage(
+            @Value("${storage.s3.endpoint:}") String endpoint,
+            @Value("${storage.s3.region:us-east-1}") String region,
+            @Value("${storage.s3.bucket}") String bucket,
+            @Value("${storage.s3.access-key:}") String accessKey,
+            @Value("${storage.s3.secret-key:}") String secretKey,
+            @Value("${storage.s3.path-style:true}") boolean pathStyle,
+            @Value("${storage.s3.prefix:certificates/}") String prefix) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .forcePathStyle(pathStyle);
+        if (!endpoint.isBlank())
+            builder.endpointOverride(URI.create(endpoint));
+        if (!accessKey.isBlank())
+            builder.credentialsProvider(StaticCredentialsProvider.create(
+                    AwsBasicCredentials.create(accessKey, secretKey)));
+
+        this.client = builder.build();
+        this.bucket = bucket;
+        this.prefix = prefix;
+        ensureBucket();
+        log.info("Certificate storage: S3 bucket {} ({})", bucket, endpoint.isBlank() ? "AWS" : endpoint);
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(prefix + key)
+                .contentType(contentType)
+                .build();
+
+        if (size >= 0) {
+            // ukuran diketahui (multipart upload) → stream langsung ke S3
+            client.putObject(request, RequestBody.fromInputStream(content, size));
+            return;
+        }
+
+        // ukuran tidak diketahui → spool ke disk dulu (bukan heap) supaya Content-Length valid
+        Path tmp = Files.createTempFile("cert-upload-", ".tmp");
+        try {
+            Files.copy(content, tmp, StandardCopyOption.REPLACE_EXISTING);
+            client.putObject(request, RequestBody.fromFile(tmp));
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return client.getObject(GetObjectRequest.builder().bucket(bucket).key(prefix + key).build());
+        } catch (NoSuchKeyException e) {
+            throw new java.nio.file.NoSuchFileException(key);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        try {
+            return client.getObject(GetObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(prefix + key)
+                    .range("bytes=" + offset + "-" + (offset + length - 1))
+                    .build());
+        } catch (NoSuchKeyException e) {
+            throw new java.nio.file.NoSuchFileException(key);
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) {
+        try {
+            HeadObjectResponse head = client.headObject(
+                    HeadObjectRequest.builder().bucket(bucket).key(prefix + key).build());
+            return Optional.of(new StoredObject(key, head.contentLength(), head.lastModified()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(prefix + key).build());
+    }
+
+    @Override
+    public void forEachKey(Consumer<StoredObject> visitor) {
+        ListObjectsV2Iterable pages = client.listObjectsV2Paginator(
+                ListObjectsV2Request.builder().bucket(bucket).prefix(prefix).build());
+        for (S3Object object : pages.contents()) {
+            visitor.accept(new StoredObject(object.key().substring(prefix.length()),
+                    object.size(), object.lastModified()));
+        }
+    }
+
+    private void ensureBucket() {
+        try {
+            client.headBucket(HeadBucketRequest.builder().bucket(bucket).build());
+        } catch (NoSuchBucketException e) {
+            client.createBucket(CreateBucketRequest.builder().bucket(bucket).build());
+            log.info("Bucket {} dibuat", bucket);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        client.close();
+    }
+}
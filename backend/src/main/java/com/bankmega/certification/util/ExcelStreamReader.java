@@ -0,0 +1,143 @@
+package com.bankmega.certification.util;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Pembaca .xlsx berbasis SAX (XSSFReader) untuk import Excel.
+ * Sheet pertama dibaca baris per baris, jadi memori tidak ikut membesar sesuai ukuran file.
+ * Nilai sel sudah diformat seperti DataFormatter; sel bertipe tanggal dikembalikan sebagai yyyy-MM-dd.
+ */
+public final class ExcelStreamReader {
+
+    private ExcelStreamReader() {
+    }
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void handle(int rowNum, ExcelRow row);
+    }
+
+    // 🔹 Satu baris hasil baca; kolom kosong / tidak ada → ""
+    public static final class ExcelRow {
+        private final List<String> cells;
+
+        private ExcelRow(List<String> cells) {
+            this.cells = cells;
+        }
+
+        public String get(int col) {
+            if (col < 0 || col >= cells.size())
+                return "";
+            String value = cells.get(col);
+            return value == null ? "" : value.trim();
+        }
+
+        public int size() {
+            return cells.size();
+        }
+    }
+
+    public static void read(MultipartFile file, RowHandler handler) throws IOException {
+        // OPCPackage dari InputStream menampung seluruh zip di memori, jadi upload di-spool ke temp file dulu
+        Path tmp = Files.createTempFile("import-", ".xlsx");
+        try {
+            file.transferTo(tmp);
+            read(tmp, handler);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    public static void read(Path path, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(path.toFile(), PackageAccess.READ)) {
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader reader = new XSSFReader(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext())
+                return;
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        styles, strings, new RowCollector(handler), new IsoDateFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid file format: " + e.getMessage(), e);
+        }
+    }
+
+    // 🔹 Kumpulkan sel per baris lalu serahkan ke handler di akhir baris
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowHandler handler;
+        private List<String> cells;
+        private int lastCol;
+
+        private RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new ArrayList<>();
+            lastCol = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.handle(rowNum, new ExcelRow(cells));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = cellReference != null ? new CellReference(cellReference).getCol() : lastCol + 1;
+            while (cells.size() < col)
+                cells.add("");
+            cells.add(formattedValue);
+            lastCol = col;
+        }
+    }
+
+    // 🔹 Tanggal diformat ISO supaya tidak tergantung format/locale di file Excel
+    private static final class IsoDateFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            return formatRawCellContents(value, formatIndex, formatString, false);
+        }
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+}
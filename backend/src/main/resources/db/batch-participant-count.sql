@@ -0,0 +1,16 @@
+-- Counter peserta aktif per batch (batches.participant_count) buat reservasi kuota atomik.
+-- Baris lama di-backfill sekali dari employee_batches, lalu default 0 + NOT NULL. Idempotent.
+DO $$
+BEGIN
+    IF to_regclass('batches') IS NULL OR to_regclass('employee_batches') IS NULL THEN
+        RETURN;
+    END IF;
+
+    UPDATE batches b
+       SET participant_count = (SELECT count(*) FROM employee_batches eb
+                                 WHERE eb.batch_id = b.id AND eb.deleted_at IS NULL)
+     WHERE b.participant_count IS NULL;
+
+    ALTER TABLE batches ALTER COLUMN participant_count SET DEFAULT 0;
+    ALTER TABLE batches ALTER COLUMN participant_count SET NOT NULL;
+END $$;
@@ -0,0 +1,45 @@
+-- Migrasi id IDENTITY -> SEQUENCE (pooled, increment 50) buat tabel volume tinggi,
+-- supaya Hibernate bisa JDBC batch insert. Idempotent, aman dijalankan tiap startup.
+-- Dijalankan sesudah Hibernate ddl-auto (spring.jpa.defer-datasource-initialization=true).
+DO $$
+DECLARE
+    t TEXT;
+    seq TEXT;
+    max_id BIGINT;
+    cur BIGINT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'employees',
+        'employee_eligibilities',
+        'employee_histories',
+        'employee_certification_histories',
+        'employee_certifications',
+        'employee_batches',
+        'employee_import_logs',
+        'job_certification_import_logs',
+        'exception_import_logs'
+    ] LOOP
+        CONTINUE WHEN to_regclass(t) IS NULL;
+        seq := t || '_seq';
+
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = t
+                     AND column_name = 'id' AND is_identity = 'YES') THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+        END IF;
+
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', seq);
+
+        -- Optimizer pooled pakai nilai sequence sebagai batas atas blok (nilai-49 .. nilai),
+        -- jadi sequence yang masih di belakang data lama dinaikkan ke max(id) + 50.
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', t) INTO max_id;
+        SELECT last_value INTO cur FROM pg_sequences
+        WHERE schemaname = current_schema() AND sequencename = seq;
+        IF cur IS NULL OR cur < max_id THEN
+            PERFORM setval(seq, max_id + 50, false);
+        END IF;
+
+        -- Insert native (di luar Hibernate) tetap dapat id dari sequence yang sama
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', t, seq);
+    END LOOP;
+END $$;
@@ -0,0 +1,174 @@
+package com.bankmega.certification;
+
+import com.bankmega.certification.entity.Batch;
+import com.bankmega.certification.entity.Certification;
+import com.bankmega.certification.entity.CertificationRule;
+import com.bankmega.certification.entity.Employee;
+import com.bankmega.certification.repository.BatchRepository;
+import com.bankmega.certification.repository.CertificationRepository;
+import com.bankmega.certification.repository.CertificationRuleRepository;
+import com.bankmega.certification.repository.EmployeeBatchRepository;
+import com.bankmega.certification.repository.EmployeeRepository;
+import com.bankmega.certification.service.EmployeeBatchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Tidak @Transactional: tiap thread harus commit sendiri supaya benar-benar saling berebut kuota
+@SpringBootTest
+class BatchQuotaConcurrencyTests {
+
+	private static final int QUOTA = 7;
+	private static final int THREADS = 16;
+
+	@Autowired
+	private EmployeeBatchService employeeBatchService;
+
+	@Autowired
+	private BatchRepository batchRepo;
+
+	@Autowired
+	private EmployeeBatchRepository employeeBatchRepo;
+
+	@Autowired
+	private EmployeeRepository employeeRepo;
+
+	@Autowired
+	private CertificationRepository certificationRepo;
+
+	@Autowired
+	private CertificationRuleRepository ruleRepo;
+
+	private final String tag = "quota-" + System.nanoTime();
+	private Certification certification;
+	private CertificationRule rule;
+	private Batch batch;
+	private final List<Employee> employees = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		certification = certificationRepo.save(Certification.builder().name(tag).code(tag).build());
+		rule = ruleRepo.save(CertificationRule.builder().certification(certification).build());
+		batch = batchRepo.save(Batch.builder()
+				.batchName(tag)
+				.certificationRule(rule)
+				.quota(QUOTA)
+				.status(Batch.Status.PLANNED)
+				.build());
+		for (int i = 0; i < THREADS * 2; i++) {
+			employees.add(employeeRepo.save(Employee.builder()
+					.nip(tag + "-" + i)
+					.name("Peserta " + i)
+					.status("ACTIVE")
+					.build()));
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		// cascade ALL di Batch.participants ikut menghapus peserta (termasuk yang soft delete)
+		batchRepo.deleteById(batch.getId());
+		employeeRepo.deleteAll(employees);
+		ruleRepo.delete(rule);
+		certificationRepo.delete(certification);
+	}
+
+	@Test
+	void concurrentSingleEnrollmentNeverExceedsQuota() throws Exception {
+		List<Callable<Integer>> tasks = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			Long employeeId = employees.get(i).getId();
+			tasks.add(() -> {
+				employeeBatchService.addParticipant(batch.getId(), employeeId);
+				return 1;
+			});
+		}
+
+		int enrolled = hammer(tasks);
+
+		assertEquals(QUOTA, enrolled);
+		assertQuotaHeld(enrolled);
+	}
+
+	@Test
+	void concurrentBulkEnrollmentNeverExceedsQuota() throws Exception {
+		List<Callable<Integer>> tasks = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			List<Long> pair = List.of(employees.get(2 * i).getId(), employees.get(2 * i + 1).getId());
+			tasks.add(() -> {
+				employeeBatchService.addParticipantsBulk(batch.getId(), pair);
+				return pair.size();
+			});
+		}
+
+		int enrolled = hammer(tasks);
+
+		// bulk semua-atau-tidak: kuota 7 dengan pasangan → maksimal 6 kursi terisi
+		assertEquals(QUOTA - QUOTA % 2, enrolled);
+		assertQuotaHeld(enrolled);
+	}
+
+	@Test
+	void releasedSeatCanBeReused() {
+		for (int i = 0; i < QUOTA; i++) {
+			employeeBatchService.addParticipant(batch.getId(), employees.get(i).getId());
+		}
+		Long firstParticipant = employeeBatchRepo.findByBatch_IdAndDeletedAtIsNull(batch.getId()).get(0).getId();
+		employeeBatchService.removeParticipant(firstParticipant);
+
+		employeeBatchService.addParticipant(batch.getId(), employees.get(QUOTA).getId());
+
+		assertQuotaHeld(QUOTA);
+	}
+
+	// Semua thread mulai bersamaan; hitung kursi yang berhasil direservasi
+	private int hammer(List<Callable<Integer>> tasks) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (Callable<Integer> task : tasks) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					try {
+						return task.call();
+					} catch (IllegalStateException full) {
+						return 0;
+					}
+				}));
+			}
+			start.countDown();
+
+			int total = 0;
+			for (Future<Integer> f : futures) {
+				total += f.get(30, TimeUnit.SECONDS);
+			}
+			return total;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private void assertQuotaHeld(int expected) {
+		long active = employeeBatchRepo.countByBatch_IdAndDeletedAtIsNull(batch.getId());
+		int counter = batchRepo.findById(batch.getId()).orElseThrow().getParticipantCount();
+
+		assertEquals(expected, active);
+		assertEquals(active, counter);
+		assertTrue(active <= QUOTA, "quota exceeded: " + active);
+	}
+}
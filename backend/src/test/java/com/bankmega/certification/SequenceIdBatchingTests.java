@@ -0,0 +1,60 @@
+package com.bankmega.certification;
+
+import com.bankmega.certification.entity.JobCertificationImportLog;
+import com.bankmega.certification.entity.User;
+import com.bankmega.certification.repository.JobCertificationImportLogRepository;
+import com.bankmega.certification.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class SequenceIdBatchingTests {
+
+	private static final int ROWS = 120;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Autowired
+	private UserRepository userRepo;
+
+	@Autowired
+	private JobCertificationImportLogRepository logRepo;
+
+	@Test
+	void insertsAreJdbcBatched() {
+		User user = userRepo.saveAndFlush(User.builder()
+				.username("batch-test-" + System.nanoTime())
+				.email("batch-test-" + System.nanoTime() + "@test.local")
+				.password("x")
+				.build());
+
+		Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+
+		List<JobCertificationImportLog> logs = new ArrayList<>();
+		for (int i = 0; i < ROWS; i++) {
+			logs.add(JobCertificationImportLog.builder().user(user).fileName("batch-" + i + ".xlsx").build());
+		}
+		logRepo.saveAll(logs);
+		logRepo.flush();
+
+		assertEquals(ROWS, stats.getEntityInsertCount());
+		// IDENTITY = 1 statement per baris; sequence pooled (50) + batch_size 200
+		// = beberapa nextval + 1 batch insert
+		long statements = stats.getPrepareStatementCount();
+		assertTrue(statements <= 5, "expected batched inserts, got " + statements + " prepared statements");
+	}
+}
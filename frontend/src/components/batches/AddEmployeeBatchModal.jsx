@@ -1,7 +1,7 @@
 import { useState } from "react";
 import toast from "react-hot-toast";
 import AsyncSelect from "react-select/async";
-import { addEmployeesToBatchBulk, fetchEligibleEmployees } from "../../services/employeeBatchService";
+import { addEmployeesToBatchBulk, fetchEligibleEmployeesPaged } from "../../services/employeeBatchService";
 
 export default function AddEmployeeBatchModal({ open, onClose, batchId, onSaved }) {
     const [employees, setEmployees] = useState([]);
@@ -13,15 +13,15 @@ export default function AddEmployeeBatchModal({ open, onClose, batchId, onSaved
 
     const loadEligible = async (inputValue) => {
         try {
-            const data = await fetchEligibleEmployees(batchId);
-            return data
-                .filter((e) =>
-                    !inputValue ? true : `${e.nip} ${e.employeeName}`.toLowerCase().includes(inputValue.toLowerCase())
-                )
-                .map((e) => ({
-                    value: e.employeeId,
-                    label: `${e.nip} - ${e.employeeName}`,
-                }));
+            const data = await fetchEligibleEmployeesPaged(batchId, {
+                search: inputValue || undefined,
+                page: 0,
+                size: 50,
+            });
+            return (data?.content ?? []).map((e) => ({
+                value: e.employeeId,
+                label: `${e.nip} - ${e.employeeName}`,
+            }));
         } catch {
             return [];
         }
@@ -33,7 +33,12 @@ export default function AddEmployeeBatchModal({ open, onClose, batchId, onSaved
             const ids = employees.map((emp) => emp.value);
             const res = await addEmployeesToBatchBulk(batchId, ids);
 
-            toast.success(`${res.length} peserta berhasil ditambahkan`);
+            const added = (res?.inserted ?? 0) + (res?.reactivated ?? 0);
+            toast.success(
+                res?.skipped
+                    ? `${added} peserta berhasil ditambahkan, ${res.skipped} sudah terdaftar`
+                    : `${added} peserta berhasil ditambahkan`
+            );
             onSaved?.();
             handleClose();
         } catch (err) {
@@ -8,7 +8,7 @@ export default function ViewEmployeeCertificationModal({ open, certId, onClose,
 
     if (!open) return null;
 
-    const fileUrl = `/api/employee-certifications/${certId}/file`;
+    const fileUrl = `/api/employee-certifications/${certId}/file?size=medium`;
 
     const handleReupload = async (e) => {
         const file = e.target.files[0];
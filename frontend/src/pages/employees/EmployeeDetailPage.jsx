@@ -169,7 +169,7 @@ export default function EmployeeDetailPage() {
                                     {c.fileUrl && (
                                         <figure className="h-40 bg-base-300 flex items-center justify-center">
                                             <img
-                                                src={`/api/employee-certifications/${c.id}/file`}
+                                                src={`/api/employee-certifications/${c.id}/file?size=thumb`}
                                                 alt={c.certificationName}
                                                 className="h-full w-full object-cover rounded"
                                             />
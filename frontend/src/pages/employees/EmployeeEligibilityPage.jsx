@@ -4,7 +4,11 @@ import toast from "react-hot-toast";
 import Select from "react-select";
 import AsyncSelect from "react-select/async";
 import Pagination from "../../components/common/Pagination";
-import { fetchEmployeeEligibilityPaged, refreshEmployeeEligibility } from "../../services/employeeEligibilityService";
+import {
+    fetchEmployeeEligibilityPaged,
+    refreshEmployeeEligibility,
+    waitEligibilityRefreshJob,
+} from "../../services/employeeEligibilityService";
 import { fetchAllJobPositions } from "../../services/jobPositionService";
 import { fetchCertifications } from "../../services/certificationService";
 import { fetchCertificationLevels } from "../../services/certificationLevelService";
@@ -15,6 +19,7 @@ export default function EmployeeEligibilityPage() {
     const [rows, setRows] = useState([]);
     const [loading, setLoading] = useState(false);
     const [refreshing, setRefreshing] = useState(false);
+    const [refreshProgress, setRefreshProgress] = useState(null);
 
     // Pagination
     const [page, setPage] = useState(1);
@@ -66,13 +71,19 @@ export default function EmployeeEligibilityPage() {
     async function onRefresh() {
         setRefreshing(true);
         try {
-            await refreshEmployeeEligibility();
-            toast.success("Eligibility berhasil di-refresh");
+            const started = await refreshEmployeeEligibility();
+            const job = await waitEligibilityRefreshJob(started.jobId, setRefreshProgress);
+            if (job.status === "COMPLETED") {
+                toast.success("Eligibility berhasil di-refresh");
+            } else {
+                toast.error(job.errorMessage || "Gagal refresh eligibility");
+            }
             load();
         } catch {
             toast.error("Gagal refresh eligibility");
         } finally {
             setRefreshing(false);
+            setRefreshProgress(null);
         }
     }
 
@@ -143,7 +154,9 @@ export default function EmployeeEligibilityPage() {
                     <div className="col-span-1">
                         <button className="btn btn-primary btn-sm w-full" onClick={onRefresh} disabled={refreshing}>
                             {refreshing && <span className="loading loading-spinner loading-xs" />}
-                            {refreshing ? "Refreshing..." : "Refresh Eligibility"}
+                            {refreshing
+                                ? `Refreshing${refreshProgress ? ` ${Math.floor(refreshProgress.percent)}%` : "..."}`
+                                : "Refresh Eligibility"}
                         </button>
                     </div>
                     <div className="col-span-1">
@@ -84,3 +84,56 @@ export async function fetchEligibleEmployees(batchId) {
         return [];
     }
 }
+
+// 🔹 Get eligible employees untuk batch (paged + search di server)
+export async function fetchEligibleEmployeesPaged(batchId, params = {}) {
+    try {
+        const { data } = await api.get(`${BASE}/batch/${batchId}/eligible/paged`, { params });
+        return data;
+    } catch (err) {
+        console.error("❌ fetchEligibleEmployeesPaged error:", err);
+        return { content: [], totalElements: 0, totalPages: 0 };
+    }
+}
+
+// 🔹 Import hasil ujian (Excel) → dry run / confirm
+export async function dryRunBatchResults(batchId, file) {
+    try {
+        const formData = new FormData();
+        formData.append("file", file);
+        const { data } = await api.post(`${BASE}/batch/${batchId}/results/dry-run`, formData, {
+            headers: { "Content-Type": "multipart/form-data" },
+        });
+        return data;
+    } catch (err) {
+        console.error("❌ dryRunBatchResults error:", err);
+        throw err;
+    }
+}
+
+export async function confirmBatchResults(batchId, file) {
+    try {
+        const formData = new FormData();
+        formData.append("file", file);
+        const { data } = await api.post(`${BASE}/batch/${batchId}/results/confirm`, formData, {
+            headers: { "Content-Type": "multipart/form-data" },
+        });
+        return data;
+    } catch (err) {
+        console.error("❌ confirmBatchResults error:", err);
+        throw err;
+    }
+}
+
+// 🔹 Download template Excel hasil ujian
+export async function downloadBatchResultTemplate(batchId) {
+    try {
+        const res = await api.get(`${BASE}/batch/${batchId}/results/template`, {
+            responseType: "blob",
+        });
+        return res.data;
+    } catch (err) {
+        console.error("❌ downloadBatchResultTemplate error:", err);
+        throw err;
+    }
+}
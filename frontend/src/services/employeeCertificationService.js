@@ -95,6 +95,39 @@ export async function reuploadCertificationFile(id, file, onUploadProgress) {
     }
 }
 
+// 🔹 Bulk upload file sertifikat dari ZIP (nama file: NIP_KODE[_Llevel][_SUB].jpg)
+export async function bulkUploadCertificationFilesDryRun(zipFile, onUploadProgress) {
+    const formData = new FormData();
+    formData.append("file", zipFile);
+
+    try {
+        const { data } = await api.post(`${BASE_URL}/bulk-upload/dry-run`, formData, {
+            headers: { "Content-Type": "multipart/form-data" },
+            onUploadProgress,
+        });
+        return data;
+    } catch (err) {
+        console.error("bulkUploadCertificationFilesDryRun error:", err);
+        throw err;
+    }
+}
+
+export async function bulkUploadCertificationFilesConfirm(zipFile, onUploadProgress) {
+    const formData = new FormData();
+    formData.append("file", zipFile);
+
+    try {
+        const { data } = await api.post(`${BASE_URL}/bulk-upload/confirm`, formData, {
+            headers: { "Content-Type": "multipart/form-data" },
+            onUploadProgress,
+        });
+        return data;
+    } catch (err) {
+        console.error("bulkUploadCertificationFilesConfirm error:", err);
+        throw err;
+    }
+}
+
 // 🔹 Hapus file sertifikat
 export async function deleteCertificationFile(id) {
     try {
@@ -24,14 +24,29 @@ export async function fetchEligibilityByEmployee(employeeId) {
     }
 }
 
-// 🔹 Refresh eligibility (recalculate semua eligibility)
+// 🔹 Refresh eligibility (recalculate semua eligibility) → jalan sebagai background job
 export async function refreshEmployeeEligibility() {
     try {
-        await api.post(`${BASE_URL}/refresh`);
-        return true;
+        const { data } = await api.post(`${BASE_URL}/refresh`);
+        return data;
     } catch (err) {
         console.error("❌ refreshEmployeeEligibility error:", err);
         throw err;
     }
 }
-  
\ No newline at end of file
+
+// 🔹 Status background job refresh (processed/total + ETA)
+export async function fetchEligibilityRefreshJob(jobId) {
+    const { data } = await api.get(`${BASE_URL}/refresh/jobs/${jobId}`);
+    return data;
+}
+
+// 🔹 Polling sampai job selesai / gagal
+export async function waitEligibilityRefreshJob(jobId, onProgress, intervalMs = 2000) {
+    for (;;) {
+        const job = await fetchEligibilityRefreshJob(jobId);
+        if (onProgress) onProgress(job);
+        if (job.status !== "RUNNING") return job;
+        await new Promise((resolve) => setTimeout(resolve, intervalMs));
+    }
+}